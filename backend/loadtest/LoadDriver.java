@@ -0,0 +1,125 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load against a running backend: each of N workers sends a
+ * request, waits for the answer and sends the next. A share of the requests
+ * are streamed PDF uploads (blocking on disk and JDBC), the rest are list
+ * calls (JDBC only). Prints throughput, error count and latency percentiles.
+ *
+ * Runs with just a JDK, no build needed:
+ *   java LoadDriver.java <baseUrl> <token> [concurrency] [seconds] [uploadShare] [uploadKb]
+ */
+public class LoadDriver {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("usage: java LoadDriver.java <baseUrl> <token> [concurrency] [seconds] [uploadShare] [uploadKb]");
+			System.exit(2);
+		}
+		String baseUrl = args[0];
+		String token = args[1];
+		int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+		double uploadShare = args.length > 4 ? Double.parseDouble(args[4]) : 0.2;
+		int uploadKb = args.length > 5 ? Integer.parseInt(args[5]) : 256;
+
+		HttpClient client = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(10))
+				.executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 8)))
+				.build();
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		List<long[]> latencies = new ArrayList<>();
+		int[] counts = new int[concurrency];
+		AtomicLong errors = new AtomicLong();
+
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		for (int w = 0; w < concurrency; w++) {
+			long[] samples = new long[1 << 16];
+			latencies.add(samples);
+			int worker = w;
+			workers.submit(() -> {
+				while (System.nanoTime() < deadline) {
+					boolean upload = ThreadLocalRandom.current().nextDouble() < uploadShare;
+					HttpRequest request = upload
+							? uploadRequest(baseUrl, token, uploadKb)
+							: HttpRequest.newBuilder(URI.create(baseUrl + "/api/documents?limit=50"))
+									.header("Authorization", "Bearer " + token)
+									.GET().build();
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 400) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					if (counts[worker] < samples.length) {
+						samples[counts[worker]] = System.nanoTime() - start;
+					}
+					counts[worker]++;
+				}
+				return null;
+			});
+		}
+		workers.shutdown();
+		workers.awaitTermination(seconds + 120L, TimeUnit.SECONDS);
+
+		long total = Arrays.stream(counts).sum();
+		long[] all = new long[(int) Arrays.stream(counts).mapToLong(c -> Math.min(c, 1 << 16)).sum()];
+		int offset = 0;
+		for (int w = 0; w < concurrency; w++) {
+			int n = Math.min(counts[w], 1 << 16);
+			System.arraycopy(latencies.get(w), 0, all, offset, n);
+			offset += n;
+		}
+		Arrays.sort(all);
+
+		System.out.printf("concurrency=%d seconds=%d uploadShare=%.2f uploadKb=%d%n", concurrency, seconds,
+				uploadShare, uploadKb);
+		System.out.printf("requests=%d throughput=%.1f req/s errors=%d%n", total, total / (double) seconds,
+				errors.get());
+		System.out.printf("latency ms p50=%.1f p95=%.1f p99=%.1f max=%.1f%n", percentile(all, 0.50),
+				percentile(all, 0.95), percentile(all, 0.99), percentile(all, 1.0));
+		System.exit(0);
+	}
+
+	// Unique content per request so the blob store cannot deduplicate the write
+	private static HttpRequest uploadRequest(String baseUrl, String token, int uploadKb) {
+		byte[] body = new byte[uploadKb * 1024];
+		ThreadLocalRandom.current().nextBytes(body);
+		// Just enough structure to pass the server's header and startxref checks
+		byte[] header = "%PDF-1.4\nxref\n".getBytes(StandardCharsets.US_ASCII);
+		byte[] trailer = "\nstartxref\n9\n%%EOF\n".getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(header, 0, body, 0, header.length);
+		System.arraycopy(trailer, 0, body, body.length - trailer.length, trailer.length);
+
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/api/documents/upload/stream?fileName=load.pdf"))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/pdf")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body))
+				.build();
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Runs the same load against the backend in platform-thread mode and in the
+# opt-in virtual-thread mode (profile "virtual") and prints both results.
+#
+# Needs Java 21+ on the PATH and the MySQL server from the README.
+# Knobs: CONCURRENCY (400), DURATION seconds (60), UPLOAD_SHARE (0.2), UPLOAD_KB (256),
+# MYSQL_URL (jdbc:mysql://localhost:3307).
+#
+# Both modes must start from the same state, so each run gets its own
+# throwaway schema (patienttrackerdb_loadtest_<mode>, recreated at startup)
+# and its own working directory under target/ for uploads/ and the search
+# index. Otherwise the second run would inherit the first run's stored
+# bytes, counted against the user's quota, and its backlog of INDEX and
+# THUMBNAIL jobs. Uploads are unique random bodies, so the default quota
+# is lifted for the test instance instead of turning them into 413s.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-400}
+DURATION=${DURATION:-60}
+UPLOAD_SHARE=${UPLOAD_SHARE:-0.2}
+UPLOAD_KB=${UPLOAD_KB:-256}
+MYSQL_URL=${MYSQL_URL:-jdbc:mysql://localhost:3307}
+BASE_URL=http://localhost:8081
+EMAIL=loadtest@example.com
+PASSWORD=loadtest@1234
+
+./mvnw -q -B -DskipTests package
+JAR=$(ls target/backend-*.jar | grep -v original | head -1)
+
+run() {
+    local mode=$1
+    shift
+    local workdir="target/loadtest-$mode"
+    rm -rf "$workdir"
+    mkdir -p "$workdir"
+    (cd "$workdir" && exec java -jar "../../$JAR" \
+        "--spring.datasource.url=$MYSQL_URL/patienttrackerdb_loadtest_$mode?createDatabaseIfNotExist=true&rewriteBatchedStatements=true" \
+        --spring.jpa.hibernate.ddl-auto=create \
+        --app.storage.quota.default=1TB \
+        "$@" > "../loadtest-$mode.log" 2>&1) &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -sf http://localhost:8082/actuator/health > /dev/null; do
+        sleep 1
+    done
+
+    curl -s -o /dev/null -X POST "$BASE_URL/auth/signup" -H "Content-Type: application/json" \
+        -d "{\"email\":\"$EMAIL\",\"name\":\"Load Test\",\"password\":\"$PASSWORD\"}" || true
+    local token
+    token=$(curl -sf -X POST "$BASE_URL/auth/login" -H "Content-Type: application/json" \
+        -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+
+    echo "== $mode =="
+    java loadtest/LoadDriver.java "$BASE_URL" "$token" "$CONCURRENCY" "$DURATION" "$UPLOAD_SHARE" \
+        "$UPLOAD_KB" | tee "target/loadtest-$mode.txt"
+    curl -s "http://localhost:8082/actuator/metrics/hikaricp.connections.pending" | tee -a "target/loadtest-$mode.txt"
+    echo
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run platform
+run virtual --spring.profiles.active=virtual
@@ -0,0 +1,73 @@
+package com.example.backend.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.backend.entities.User;
+import com.example.backend.entities.documents;
+import com.example.backend.response.documentSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON encoding of document lists: full entities with their embedded User
+ * against the documentSummary rows the list endpoint now returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentSerializationBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	// Same defaults Spring Boot applies to the MVC message converter
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private List<documents> documents;
+
+	private List<documentSummary> summaries;
+
+	@Setup
+	public void setUp() {
+		User user = new User(1L, "bench@example.com", "Bench User", null, "1234567890", "Bangalore", "India",
+				"Karnataka", "560001", new Date());
+
+		documents = new ArrayList<>(size);
+		summaries = new ArrayList<>(size);
+		for (long i = 0; i < size; i++) {
+			Date uploadDate = new Date(1_700_000_000_000L + i * 1000);
+			String fileName = "report-" + i + ".pdf";
+			documents.add(new documents(i, fileName, uploadDate, 1_159_689L, "ab".repeat(32), user));
+			summaries.add(new documentSummary(i, fileName, uploadDate, 1_159_689L));
+		}
+	}
+
+	@Benchmark
+	public byte[] entities() throws Exception {
+		return objectMapper.writeValueAsBytes(documents);
+	}
+
+	@Benchmark
+	public byte[] summaries() throws Exception {
+		return objectMapper.writeValueAsBytes(summaries);
+	}
+
+}
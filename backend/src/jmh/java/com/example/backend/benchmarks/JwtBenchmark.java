@@ -0,0 +1,56 @@
+package com.example.backend.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend.config.jwtProvider;
+
+/**
+ * Token issue and verification. The cached case is what every request after
+ * the first pays; the uncached case is a full HMAC check and claims parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	private static final Duration TTL = Duration.ofMinutes(15);
+
+	private String bearer;
+
+	@Setup
+	public void setUp() {
+		bearer = "Bearer " + jwtProvider.generateToken("bench@example.com", 42L, TTL);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtProvider.generateToken("bench@example.com", 42L, TTL);
+	}
+
+	@Benchmark
+	public String emailFromCachedToken() {
+		return jwtProvider.getEmailFromJwtToken(bearer);
+	}
+
+	@Benchmark
+	public String emailFromUncachedToken() {
+		jwtProvider.verifiedTokenCache().invalidateAll();
+		return jwtProvider.getEmailFromJwtToken(bearer);
+	}
+
+}
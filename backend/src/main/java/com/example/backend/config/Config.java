@@ -3,6 +3,7 @@ package com.example.backend.config;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -22,7 +23,7 @@ import jakarta.servlet.http.HttpServletRequest;
 @EnableWebSecurity
 public class Config {
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, TokenRevocationList revocations) throws Exception {
 
         http.sessionManagement(management -> management
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -30,7 +31,7 @@ public class Config {
                         .requestMatchers("/api/**")
                         .authenticated()
                         .anyRequest().permitAll())
-                .addFilterBefore(new jwtValidator(), BasicAuthenticationFilter.class)
+                .addFilterBefore(new jwtValidator(revocations), BasicAuthenticationFilter.class)
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
         return http.build();
@@ -54,7 +55,8 @@ public class Config {
 
                 cfg.setAllowedHeaders(Collections.singletonList("*"));
 
-                cfg.setExposedHeaders(Arrays.asList("Authorization"));
+                cfg.setExposedHeaders(Arrays.asList("Authorization", "Content-Disposition", "Content-Range",
+                        "Accept-Ranges", "ETag", "Last-Modified"));
 
                 cfg.setMaxAge(3600L);
 
@@ -64,8 +66,9 @@ public class Config {
         };
     }
 
+    // Raising or lowering the cost re-encodes each stored hash on its next login
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,138 @@
+package com.example.backend.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated pools for work that should not share Tomcat's request threads.
+ * Each pool is bounded so a burst queues or pushes back instead of growing
+ * without limit.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String UPLOAD_EXECUTOR = "uploadExecutor";
+
+    public static final String PASSWORD_HASH_EXECUTOR = "passwordHashExecutor";
+
+    public static final String IMPORT_HASH_EXECUTOR = "importHashExecutor";
+
+    public static final String INDEX_EXECUTOR = "indexExecutor";
+
+    public static final String JOB_EXECUTOR = "jobExecutor";
+
+    public static final String THUMBNAIL_EXECUTOR = "thumbnailExecutor";
+
+    // Streams the files of a batch upload to disk in parallel; when the queue
+    // is full the request thread writes the file itself
+    @Bean(name = UPLOAD_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    ThreadPoolTaskExecutor uploadExecutor(
+            @Value("${app.upload.batch.threads:4}") int threads,
+            @Value("${app.upload.batch.max-files:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // BCrypt for login and signup. CPU-bound, so it stays on a few platform
+    // threads in both threading modes; a full queue rejects (AbortPolicy) and
+    // the caller answers 429 instead of piling up request threads
+    @Bean(name = PASSWORD_HASH_EXECUTOR)
+    ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${app.auth.hash-threads:2}") int threads,
+            @Value("${app.auth.hash-queue:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Bulk user import hashes a whole chunk of passwords at once, one thread
+    // per core by default; separate from the login pool so an import cannot
+    // make logins answer 429
+    @Bean(name = IMPORT_HASH_EXECUTOR)
+    ThreadPoolTaskExecutor importHashExecutor(
+            @Value("${app.users.import.hash-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${app.users.import.chunk-size:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-bcrypt-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // Search-index removals after delete (adds run as INDEX jobs). Holds at
+    // most one drain task per user with pending removals; DocumentIndexer
+    // handles a rejection itself so a user's removals stay in order
+    @Bean(name = INDEX_EXECUTOR)
+    ThreadPoolTaskExecutor indexExecutor(@Value("${app.search.index-queue:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("index-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Runs the document jobs JobWorker claims. The worker never has more than
+    // app.jobs.batch-size jobs in flight, so the queue cannot overflow
+    @Bean(name = JOB_EXECUTOR)
+    ThreadPoolTaskExecutor jobExecutor(
+            @Value("${app.jobs.threads:2}") int threads,
+            @Value("${app.jobs.batch-size:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Thumbnails requested before their THUMBNAIL job has run. Rendering is
+    // CPU-bound, so a few platform threads in both threading modes; a full
+    // queue rejects (AbortPolicy) and the request is simply asked to come back
+    @Bean(name = THUMBNAIL_EXECUTOR)
+    ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${app.thumbnails.render-threads:2}") int threads,
+            @Value("${app.thumbnails.render-queue:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // With spring.threads.virtual.enabled each file gets its own virtual
+    // thread; the concurrency limit keeps the same cap on parallel disk writes
+    // (excess submitters block, which is cheap on a virtual thread)
+    @Bean(name = UPLOAD_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    SimpleAsyncTaskExecutor virtualUploadExecutor(@Value("${app.upload.batch.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upload-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(threads);
+        return executor;
+    }
+
+}
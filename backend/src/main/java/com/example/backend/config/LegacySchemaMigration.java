@@ -0,0 +1,70 @@
+package com.example.backend.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema fixes that {@code ddl-auto=update} will not make on its own because
+ * it never drops anything. Each step checks the live schema first, so running
+ * it on every start is harmless.
+ *
+ * Runs once every singleton, including the entity manager factory that
+ * applies ddl-auto, is initialised, but before the context starts the web
+ * server: no request can take a documents id from the sequence before it
+ * has been moved past the existing rows.
+ */
+@Component
+public class LegacySchemaMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacySchemaMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            dropUniqueFileNameIndex();
+        } catch (Exception e) {
+            log.warn("Legacy schema migration skipped: {}", e.getMessage());
+        }
+        try {
+            advanceDocumentSequence();
+        } catch (Exception e) {
+            log.warn("documents_seq check skipped: {}", e.getMessage());
+        }
+    }
+
+    // documents.file_name used to be globally unique, which made two users
+    // uploading "report.pdf" collide. Files are now keyed by content hash.
+    private void dropUniqueFileNameIndex() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT DISTINCT index_name FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'documents' "
+                        + "AND column_name = 'file_name' AND non_unique = 0",
+                String.class);
+
+        for (String index : indexes) {
+            log.info("Dropping legacy unique index {} on documents.file_name", index);
+            jdbcTemplate.execute("ALTER TABLE documents DROP INDEX `" + index + "`");
+        }
+    }
+
+    // documents ids used to come from AUTO_INCREMENT. The pooled sequence that
+    // replaced it starts at 1, so move it past the existing rows. Hibernate
+    // treats a fetched value v as the range [v - 49, v], hence the +50.
+    private void advanceDocumentSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM documents", Long.class);
+        int updated = jdbcTemplate.update("UPDATE documents_seq SET next_val = ? WHERE next_val < ?",
+                maxId + 50, maxId + 50);
+        if (updated > 0) {
+            log.info("Advanced documents_seq past existing id {}", maxId);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.backend.config;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.errors.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token buckets per email and per client IP, checked before a login touches
+ * the database or BCrypt. Each bucket is a single CAS-updated state, so
+ * concurrent attempts never block each other. Buckets live in a size-bounded
+ * Caffeine cache and are dropped once idle long enough to have refilled, at
+ * which point a fresh bucket is equivalent.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Limit emailLimit;
+
+    private final Limit ipLimit;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Counter emailRejections;
+
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(
+            @Value("${app.auth.throttle.email-capacity:5}") int emailCapacity,
+            @Value("${app.auth.throttle.email-refill:1m}") Duration emailRefill,
+            @Value("${app.auth.throttle.ip-capacity:30}") int ipCapacity,
+            @Value("${app.auth.throttle.ip-refill:1m}") Duration ipRefill,
+            @Value("${app.auth.throttle.max-keys:100000}") long maxKeys,
+            MeterRegistry meterRegistry) {
+        this.emailLimit = new Limit(emailCapacity, emailRefill);
+        this.ipLimit = new Limit(ipCapacity, ipRefill);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(emailRefill.compareTo(ipRefill) > 0 ? emailRefill : ipRefill)
+                .build();
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+    }
+
+    /** Takes one token from both buckets or throws TooManyRequestsException. */
+    public void acquire(String email, String clientIp) {
+        acquire(email, clientIp, System.nanoTime());
+    }
+
+    void acquire(String email, String clientIp, long now) {
+        // IP first: a spray across many emails from one address stops here
+        if (clientIp != null) {
+            long waitNanos = bucket("ip:" + clientIp, ipLimit, now).tryAcquire(now);
+            if (waitNanos > 0) {
+                ipRejections.increment();
+                throw rejected(waitNanos);
+            }
+        }
+        if (email != null && !email.isBlank()) {
+            String key = "email:" + email.trim().toLowerCase(Locale.ROOT);
+            long waitNanos = bucket(key, emailLimit, now).tryAcquire(now);
+            if (waitNanos > 0) {
+                emailRejections.increment();
+                throw rejected(waitNanos);
+            }
+        }
+    }
+
+    private TokenBucket bucket(String key, Limit limit, long now) {
+        return buckets.get(key, k -> new TokenBucket(limit, now));
+    }
+
+    private TooManyRequestsException rejected(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyRequestsException("Too many login attempts, try again later", seconds);
+    }
+
+    // capacity tokens, refilled continuously at capacity per refill period
+    private record Limit(int capacity, double tokensPerNano) {
+
+        Limit(int capacity, Duration refill) {
+            this(capacity, capacity / (double) refill.toNanos());
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+
+    static final class TokenBucket {
+
+        private final Limit limit;
+
+        private final AtomicReference<State> state;
+
+        TokenBucket(Limit limit, long now) {
+            this.limit = limit;
+            this.state = new AtomicReference<>(new State(limit.capacity(), now));
+        }
+
+        // 0 when a token was taken, otherwise nanos until one is available
+        long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double elapsed = Math.max(0, now - current.updatedAt());
+                double tokens = Math.min(limit.capacity(), current.tokens() + elapsed * limit.tokensPerNano());
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / limit.tokensPerNano());
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt())))) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
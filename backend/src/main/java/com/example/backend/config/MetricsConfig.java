@@ -0,0 +1,26 @@
+package com.example.backend.config;
+
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Configuration
+public class MetricsConfig {
+
+    // cache.gets{cache=jwt.verified,result=hit|miss}, cache.size, cache.evictions
+    @Bean
+    MeterRegistryCustomizer<MeterRegistry> jwtTokenCacheMetrics() {
+        return registry -> CaffeineCacheMetrics.monitor(registry, jwtProvider.verifiedTokenCache(), "jwt.verified");
+    }
+
+    // Makes @Timed work on beans (fileServiceImpl, AuthController), not just on MVC handlers
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+}
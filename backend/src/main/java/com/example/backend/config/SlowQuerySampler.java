@@ -0,0 +1,36 @@
+package com.example.backend.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Passes on a sample of Hibernate's slow-query log (org.hibernate.SQL_SLOW),
+ * so a burst of slow statements, say while the database is struggling, shows
+ * up as a representative trickle instead of one line per statement. Wired in
+ * logback-spring.xml; the rate is app.logging.slow-query.sample-rate.
+ */
+public class SlowQuerySampler extends TurboFilter {
+
+    static final String SLOW_QUERY_LOGGER = "org.hibernate.SQL_SLOW";
+
+    private double sampleRate = 1.0;
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (logger == null || !SLOW_QUERY_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < sampleRate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.backend.config;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.entities.RevokedToken;
+import com.example.backend.repositories.revokedTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory copy of the revoked_tokens table that {@link jwtValidator} checks
+ * on every request. A Bloom filter answers "definitely not revoked" for almost
+ * every token in a few memory reads; only its rare hits go on to the exact
+ * map of jti to expiry, so the check never touches the database and never
+ * rejects a token by mistake.
+ *
+ * The copy is loaded at startup and kept current by polling for recently
+ * revoked rows, with an overlap so rows committed late or stamped by a
+ * slightly different clock are still picked up. Expired entries are pruned
+ * and the filter rebuilt without them.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private static final int LOAD_BATCH = 1000;
+
+    // Re-read window on each poll; covers commit delay and clock skew between instances
+    private static final long POLL_OVERLAP_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    @Autowired
+    private revokedTokenRepository revokedTokenRepository;
+
+    private final int expectedEntries;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+
+    // Replaced wholesale on prune; writers hold the lock so none is lost in the swap
+    private volatile BloomFilter filter;
+
+    // A j.u.c lock rather than a monitor, so a virtual thread never pins its carrier here
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile long lastPoll;
+
+    public TokenRevocationList(@Value("${app.auth.revocation.expected-entries:100000}") int expectedEntries) {
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    void load() {
+        long now = System.currentTimeMillis();
+        Long after = 0L;
+        List<RevokedToken> batch;
+        do {
+            batch = revokedTokenRepository.findUnexpired(new Date(now), after, Limit.of(LOAD_BATCH));
+            for (RevokedToken token : batch) {
+                add(token.getJti(), token.getExpiresAt().getTime());
+                after = token.getId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+        lastPoll = now;
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    /** Lock-free; called for every authenticated request. */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Rejects the token on this instance right away. The caller writes the
+     * revoked_tokens row; other instances pick it up on their next poll.
+     */
+    public void add(String jti, long expiresAt) {
+        if (jti == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            // Map first, so a filter hit always finds the entry
+            revoked.put(jti, expiresAt);
+            filter.put(jti);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.poll-interval:PT2S}")
+    public void poll() {
+        long now = System.currentTimeMillis();
+        List<RevokedToken> recent = revokedTokenRepository.findRevokedSince(new Date(lastPoll - POLL_OVERLAP_MILLIS),
+                new Date(now));
+        for (RevokedToken token : recent) {
+            add(token.getJti(), token.getExpiresAt().getTime());
+        }
+        lastPoll = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.prune-interval:PT10M}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        int before;
+        writeLock.lock();
+        try {
+            before = revoked.size();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        } finally {
+            writeLock.unlock();
+        }
+
+        int deleted = revokedTokenRepository.deleteExpired(new Date(now));
+        if (before > revoked.size() || deleted > 0) {
+            log.info("Revocation list: dropped {} expired entries, deleted {} rows", before - revoked.size(),
+                    deleted);
+        }
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Fixed-size Bloom filter over jti strings. Bits are set atomically and
+     * read without locking; k bit positions come from two 64-bit hashes
+     * (Kirsch-Mitzenmacher double hashing) derived from String.hashCode.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+
+        private final long bitCount;
+
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            int n = Math.max(expectedEntries, 1);
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) >>> 6);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        void put(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                words.accumulateAndGet((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // String caches its hashCode, and the validator sees the same jti
+        // instance for every request with a cached token, so this is usually
+        // free. Keys sharing a 32-bit hash always collide, but at 100k
+        // entries that adds only ~2e-5 to the false-positive rate.
+        private static long hash(String key) {
+            return mix(key.hashCode());
+        }
+
+        // MurmurHash3 fmix64
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -1,21 +1,78 @@
 package com.example.backend.config;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.security.core.Authentication;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 public class jwtProvider {
 
-    public static String generateToken(Authentication authentication) {
+    private static final String USER_ID_CLAIM = "uid";
 
+    private static final int MAX_CACHED_TOKENS = 100_000;
+
+    // Immutable and thread-safe once built, so every request shares it
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(jwtConstant.JWT_SECRET_KEY)
+            .build();
+
+    // Tokens that already passed signature verification, keyed by SHA-256 of
+    // the token so raw bearer tokens are never held in memory. Each entry
+    // expires exactly when its token does.
+    private static final Cache<String, VerifiedToken> VERIFIED_TOKENS = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                    long remainingMillis = value.expiresAt() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                        long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                        long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    private record VerifiedToken(UserPrincipal principal, long expiresAt) {
+    }
+
+    // Short-lived access token; the random jti is what a revocation names
+    public static String generateToken(String email, Long userId, Duration ttl) {
+        return generateToken(UUID.randomUUID().toString(), email, userId, ttl);
+    }
+
+    public static String generateToken(String tokenId, String email, Long userId, Duration ttl) {
+
+        long now = System.currentTimeMillis();
         String jwt = Jwts.builder()
-                .setSubject(authentication.getName())
-                .claim("email", authentication.getName())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 864000000))
+                .setId(tokenId)
+                .setSubject(email)
+                .claim("email", email)
+                .claim(USER_ID_CLAIM, userId)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttl.toMillis()))
                 .signWith(jwtConstant.JWT_SECRET_KEY)
                 .compact();
 
@@ -23,18 +80,44 @@ public class jwtProvider {
     }
 
     public static String getEmailFromJwtToken(String jwt) {
+        return getPrincipalFromJwtToken(jwt).getEmail();
+    }
+
+    public static UserPrincipal getPrincipalFromJwtToken(String jwt) {
         jwt = jwt.substring(7);
 
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(jwtConstant.JWT_SECRET_KEY)
-                .build()
-                .parseClaimsJws(jwt)
-                .getBody();
+        String key = digest(jwt);
+        VerifiedToken cached = VERIFIED_TOKENS.getIfPresent(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.principal();
+        }
+
+        Claims claims = PARSER.parseClaimsJws(jwt).getBody();
 
-        String email = claims.getSubject();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        UserPrincipal principal = new UserPrincipal(userId != null ? userId.longValue() : null, claims.getSubject(),
+                claims.getId(), expiresAt);
 
-        return email;
+        if (claims.getExpiration() != null) {
+            VERIFIED_TOKENS.put(key, new VerifiedToken(principal, expiresAt));
+        }
+
+        return principal;
+    }
+
+    /** The verified-token cache, exposed so its hit rate can be published as metrics. */
+    public static Cache<String, ?> verifiedTokenCache() {
+        return VERIFIED_TOKENS;
+    }
 
+    private static String digest(String jwt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwt.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
 }
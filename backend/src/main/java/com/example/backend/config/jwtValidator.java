@@ -17,6 +17,12 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class jwtValidator extends OncePerRequestFilter {
 
+    private final TokenRevocationList revocations;
+
+    public jwtValidator(TokenRevocationList revocations) {
+        this.revocations = revocations;
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -35,15 +41,9 @@ public class jwtValidator extends OncePerRequestFilter {
         String jwt = request.getHeader(jwtConstant.JWT_HEADER);
 
         if (jwt != null && jwt.startsWith("Bearer ")) {
+            UserPrincipal principal;
             try {
-                String email = jwtProvider.getEmailFromJwtToken(jwt);
-
-                List<GrantedAuthority> authorities = new ArrayList<>();
-
-                Authentication authentication = new UsernamePasswordAuthenticationToken(email, null, authorities);
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-
+                principal = jwtProvider.getPrincipalFromJwtToken(jwt);
             } catch (Exception e) {
                 // Instead of throwing exception, send proper JSON response
                 response.setContentType("application/json");
@@ -52,6 +52,30 @@ public class jwtValidator extends OncePerRequestFilter {
                         "{\"error\":\"Invalid Token\",\"message\":\"The provided JWT token is invalid or expired\"}");
                 return;
             }
+
+            // Tokens without a jti predate revocation and could never be revoked
+            if (principal.getTokenId() == null) {
+                response.setContentType("application/json");
+                response.setStatus(401);
+                response.getWriter().write(
+                        "{\"error\":\"Invalid Token\",\"message\":\"The provided JWT token is invalid or expired\"}");
+                return;
+            }
+
+            // In memory; revocation never costs a database round trip here
+            if (revocations.isRevoked(principal.getTokenId())) {
+                response.setContentType("application/json");
+                response.setStatus(401);
+                response.getWriter().write(
+                        "{\"error\":\"Token Revoked\",\"message\":\"The provided JWT token has been revoked\"}");
+                return;
+            }
+
+            List<GrantedAuthority> authorities = new ArrayList<>();
+
+            Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         } else if (jwt != null) {
             // Token exists but doesn't have Bearer prefix
             response.setContentType("application/json");
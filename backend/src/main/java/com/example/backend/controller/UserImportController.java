@@ -0,0 +1,65 @@
+package com.example.backend.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.services.UserImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bulk account creation for clinic onboarding. Restricted to the emails in
+ * app.users.import.admins; with none configured the endpoint is closed.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportController.class);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Value("${app.users.import.admins:}")
+    private List<String> admins;
+
+    // Body is CSV with a header row (email,password,name,phone,city,country,state,pincode)
+    // or NDJSON with the same fields; answers one NDJSON result line per row
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" },
+            produces = "application/x-ndjson")
+    public void importUsers(@AuthenticationPrincipal UserPrincipal principal, HttpServletRequest request,
+            HttpServletResponse response) throws Exception {
+        if (principal == null || !admins.contains(principal.getEmail())) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Not allowed to import users.");
+            return;
+        }
+
+        UserImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        try {
+            long created = userImportService.importUsers(request.getInputStream(), format,
+                    response.getOutputStream());
+            log.info("User import by {} created {} accounts", principal.getEmail(), created);
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        }
+    }
+}
@@ -4,42 +4,84 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.entities.StorageUsage;
 import com.example.backend.entities.User;
 import com.example.backend.entities.documents;
+import com.example.backend.errors.QuotaExceededException;
+import com.example.backend.models.BulkDeleteRequest;
+import com.example.backend.response.batchUploadResult;
+import com.example.backend.response.bulkDeleteResponse;
+import com.example.backend.response.documentPage;
+import com.example.backend.response.documentStatus;
 import com.example.backend.response.fileResponse;
+import com.example.backend.response.searchHit;
+import com.example.backend.response.storageUsageResponse;
+import com.example.backend.services.TokenService;
 import com.example.backend.services.UserService;
 import com.example.backend.services.fileService;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import com.example.backend.storage.DocumentFile;
+import com.example.backend.storage.FileDownloader;
+import com.example.backend.storage.StorageMetrics;
+import com.example.backend.storage.StorageQuota;
+import com.example.backend.storage.ThumbnailStore;
+import java.net.URI;
 import java.util.List;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 // @CrossOrigin(origins = "http://localhost:5173")
 @RequestMapping("/api")
 public class fileController {
 
+    private static final Logger log = LoggerFactory.getLogger(fileController.class);
+
+    // A thumbnail is keyed by the file's content hash, so it never changes under its URL's ETag
+    private static final String THUMBNAIL_CACHE_CONTROL = "private, max-age=31536000, immutable";
+
     @Autowired
     private fileService fileService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private FileDownloader fileDownloader;
+
+    @Autowired
+    private StorageMetrics storageMetrics;
+
+    @Autowired
+    private ThumbnailStore thumbnailStore;
+
+    @Autowired
+    private StorageQuota storageQuota;
+
+    @Autowired
+    private TokenService tokenService;
+
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser(@RequestHeader("Authorization") String token) throws Exception {
-        User user = userService.findUserByJwt(token);
+    public ResponseEntity<User> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) throws Exception {
+        User user = userService.findCurrentUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -48,9 +90,55 @@ public class fileController {
         return ResponseEntity.ok(user);
     }
 
+    // Update profile fields; email and password are not changed here
+    @PutMapping("/me")
+    public ResponseEntity<User> updateCurrentUser(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestBody User changes) throws Exception {
+        User user = userService.findCurrentUser(principal);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(userService.updateProfile(user.getId(), changes));
+    }
+
+    // Signs out every device: all refresh tokens and the access tokens issued with them are revoked
+    @PostMapping("/me/logout-all")
+    public ResponseEntity<?> logoutEverywhere(@AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            tokenService.logoutEverywhere(principal);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("Exception while revoking sessions", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception while revoking sessions: " + e.getMessage());
+        }
+    }
+
+    // Bytes stored against the upload quota, from the running counter
+    @GetMapping("/me/storage")
+    public ResponseEntity<?> getStorageUsage(@AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            StorageUsage usage = storageQuota.usage(user.getId());
+            return ResponseEntity.ok(new storageUsageResponse(usage.getUsedBytes(), storageQuota.quotaOf(usage),
+                    usage.getFileCount()));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception while reading storage usage", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception while reading storage usage: " + e.getMessage());
+        }
+    }
+
     // Upload file with error handling
     @PostMapping("/documents/upload")
-    public ResponseEntity<fileResponse> uploadFile(@RequestHeader("Authorization") String token,
+    public ResponseEntity<fileResponse> uploadFile(@AuthenticationPrincipal UserPrincipal principal,
             @RequestParam("file") MultipartFile file) {
 
         String fileName = (file != null) ? file.getOriginalFilename() : null;
@@ -58,7 +146,7 @@ public class fileController {
             return ResponseEntity.badRequest().body(new fileResponse(null, "No file uploaded"));
         }
         try {
-            User user = userService.findUserByJwt(token);
+            User user = userService.findCurrentUser(principal);
 
             if (user == null) {
 
@@ -70,85 +158,258 @@ public class fileController {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(new fileResponse(fileName, "File upload failed"));
             }
-            return ResponseEntity.ok(new fileResponse(fileName, "File uploaded successfully"));
+            // Stored; verification, indexing and the thumbnail follow as jobs
+            return ResponseEntity.accepted().location(statusUri(fileDetails))
+                    .body(new fileResponse(fileName, "File uploaded successfully"));
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new fileResponse(fileName, e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new fileResponse(fileName, e.getMessage()));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new fileResponse(fileName, "User not found or unauthorized."));
+        } catch (Exception e) {
+            log.error("Exception during upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new fileResponse(fileName, "Exception during upload: " + e.getMessage()));
+        }
+    }
+
+    // Upload many files at once; each file gets its own result entry
+    @PostMapping("/documents/upload/batch")
+    public ResponseEntity<?> uploadFiles(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam("files") List<MultipartFile> files) {
+        try {
+            User user = userService.findCurrentUser(principal);
+
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+            List<batchUploadResult> results = fileService.uploadFiles(user, files);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception during batch upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception during batch upload: " + e.getMessage());
+        }
+    }
+
+    // Stream the raw request body straight to disk, bypassing multipart parsing
+    @PostMapping(value = "/documents/upload/stream", consumes = { MediaType.APPLICATION_PDF_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<fileResponse> uploadFileStream(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam("fileName") String fileName, HttpServletRequest request) {
+
+        long contentLength = request.getContentLengthLong();
+        if (contentLength == 0) {
+            return ResponseEntity.badRequest().body(new fileResponse(fileName, "No file uploaded"));
+        }
+        try {
+            User user = userService.findCurrentUser(principal);
+
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new fileResponse(fileName, "User not found or unauthorized."));
+            }
+            documents fileDetails = fileService.uploadFileStream(user, fileName, request.getInputStream());
+            if (fileDetails == null) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new fileResponse(fileName, "File upload failed"));
+            }
+            return ResponseEntity.accepted().location(statusUri(fileDetails))
+                    .body(new fileResponse(fileDetails.getFileName(), "File uploaded successfully"));
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new fileResponse(fileName, e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new fileResponse(fileName, e.getMessage()));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new fileResponse(fileName, "User not found or unauthorized."));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Exception during upload", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new fileResponse(fileName, "Exception during upload: " + e.getMessage()));
         }
     }
 
-    // Download file with robust error handling
+    // Download file with Range, ETag and conditional GET support
     @GetMapping("/documents/{id}")
-    public ResponseEntity<?> downloadFileById(@RequestHeader("Authorization") String token, @PathVariable Long id) {
-        final String UPLOAD_DIR = "uploads";
+    public ResponseEntity<?> downloadFileById(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id,
+            HttpServletRequest request, HttpServletResponse response) {
         try {
-            User user = userService.findUserByJwt(token);
+            User user = userService.findCurrentUser(principal);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
             }
 
-            documents details = fileService.getFile(user, id);
-            if (details == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File metadata not found for id: " + id);
+            // Cached after the first download: no query and a single stat
+            DocumentFile file = fileService.getDocumentFile(user, id);
+            if (file == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found for id: " + id);
             }
 
-            Path filePath = Paths.get(System.getProperty("user.dir"), UPLOAD_DIR, details.getFileName());
-            System.out.println("file Details : " + details);
-            System.out.println("Resolved file path: " + filePath.toAbsolutePath());
+            storageMetrics.recordDownload(fileDownloader.serve(request, response, file));
+            fileService.recordAccess(file);
+            return null; // body already written to the response
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception during download", e);
+            if (response.isCommitted()) {
+                return null;
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception during download: " + e.getMessage());
+        }
+    }
 
-            if (!Files.exists(filePath) || !Files.isReadable(filePath)) {
-                System.out.println("File not found or not readable.");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("File not found or not readable: " + filePath.toAbsolutePath());
+    // Progress of the jobs that run after an upload (verify, index, thumbnail)
+    @GetMapping("/documents/{id}/status")
+    public ResponseEntity<?> getDocumentStatus(@AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable Long id) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
             }
 
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION,
-                                "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("File resource not found or not readable.");
+            documentStatus status = fileService.getDocumentStatus(user, id);
+            if (status == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found for id: " + id);
             }
+            return ResponseEntity.ok(status);
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Exception while reading document status", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Exception during download: " + e.getMessage());
+                    .body("Exception while reading document status: " + e.getMessage());
+        }
+    }
+
+    // Small PNG of the first page, for previews in the document list
+    @GetMapping("/documents/{id}/thumbnail")
+    public ResponseEntity<?> getThumbnail(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            DocumentFile file = fileService.getDocumentFile(user, id);
+            if (file == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found for id: " + id);
+            }
+            documents details = file.document();
+            if (details.getBlobHash() == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No thumbnail for id: " + id);
+            }
+
+            response.setHeader(HttpHeaders.CACHE_CONTROL, THUMBNAIL_CACHE_CONTROL);
+            if (new ServletWebRequest(request, response).checkNotModified(thumbnailStore.etagFor(details))) {
+                return null; // 304
+            }
+
+            ThumbnailStore.Thumbnail thumbnail = thumbnailStore.get(details);
+            if (thumbnail.rendering()) {
+                // Rendering in the background; ask the client to come back shortly
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+                response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body("Thumbnail is being rendered");
+            }
+            if (thumbnail.png() == null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No thumbnail for id: " + id);
+            }
+            return ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).body(thumbnail.png());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception while loading thumbnail", e);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception while loading thumbnail: " + e.getMessage());
         }
     }
 
-    // List all files with error handling
+    // List files a page at a time, newest first; follow nextCursor for more
     @GetMapping("/documents")
-    public ResponseEntity<?> getAllFiles(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getAllFiles(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
         try {
 
-            User user = userService.findUserByJwt(token);
+            User user = userService.findCurrentUser(principal);
 
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
             }
 
-            List<documents> files = fileService.getAllFiles(user);
-            if (files == null || files.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body("No files found.");
-            }
-            return ResponseEntity.ok(files);
+            documentPage page = fileService.getDocumentPage(user, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Exception while fetching file list", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Exception while fetching file list: " + e.getMessage());
         }
     }
 
+    // Full-text search over the text of the user's PDFs, best match first
+    @GetMapping("/documents/search")
+    public ResponseEntity<?> searchFiles(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            List<searchHit> hits = fileService.searchDocuments(user, query, limit);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception during search", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception during search: " + e.getMessage());
+        }
+    }
+
+    // Stream every document row as NDJSON for reconciliation jobs; memory stays flat
+    @GetMapping(value = "/documents/export", produces = "application/x-ndjson")
+    public void exportDocuments(@AuthenticationPrincipal UserPrincipal principal, HttpServletResponse response)
+            throws Exception {
+        User user = userService.findCurrentUser(principal);
+        if (user == null) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "User not found or unauthorized.");
+            return;
+        }
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        fileService.exportDocuments(user, response.getOutputStream());
+    }
+
     // Delete file with error handling
     @DeleteMapping("/documents/{id}")
-    public ResponseEntity<?> deleteFile(@RequestHeader("Authorization") String token, @PathVariable Long id) {
+    public ResponseEntity<?> deleteFile(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
         try {
 
-            User user = userService.findUserByJwt(token);
+            User user = userService.findCurrentUser(principal);
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
             }
@@ -158,10 +419,40 @@ public class fileController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found for id: " + id);
             }
             return ResponseEntity.ok(result);
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Exception during file deletion", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Exception during file deletion: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Delete many files in one request; disk space is reclaimed in the background
+    @DeleteMapping("/documents")
+    public ResponseEntity<?> deleteFiles(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestBody BulkDeleteRequest request) {
+        try {
+
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            bulkDeleteResponse result = fileService.deleteFiles(user, request.getIds());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception during file deletion", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception during file deletion: " + e.getMessage());
+        }
+    }
+
+    private URI statusUri(documents document) {
+        return URI.create("/api/documents/" + document.getId() + "/status");
+    }
+}
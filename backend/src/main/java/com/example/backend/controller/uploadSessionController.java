@@ -0,0 +1,173 @@
+package com.example.backend.controller;
+
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.entities.UploadSession;
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.entities.User;
+import com.example.backend.entities.documents;
+import com.example.backend.errors.QuotaExceededException;
+import com.example.backend.errors.UploadConflictException;
+import com.example.backend.models.UploadSessionRequest;
+import com.example.backend.response.fileResponse;
+import com.example.backend.response.uploadSessionResponse;
+import com.example.backend.services.UploadSessionService;
+import com.example.backend.services.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resumable uploads: create a session, PUT chunks in any order (in parallel if
+ * you like), check which chunks arrived, then complete to create the document.
+ */
+@RestController
+@RequestMapping("/api/documents/uploads")
+public class uploadSessionController {
+
+    private static final Logger log = LoggerFactory.getLogger(uploadSessionController.class);
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping
+    public ResponseEntity<?> createSession(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestBody UploadSessionRequest request) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            UploadSession session = uploadSessionService.createSession(user, request.getFileName(),
+                    request.getTotalSize(), request.getChunkSize());
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(session));
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception while creating upload session", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception while creating upload session: " + e.getMessage());
+        }
+    }
+
+    @PutMapping(value = "/{sessionId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadChunk(@AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable String sessionId, @PathVariable int index, HttpServletRequest request) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            uploadSessionService.writeChunk(user, sessionId, index, request.getInputStream());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UploadConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception during chunk upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception during chunk upload: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<?> getSession(@AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable String sessionId) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            return ResponseEntity.ok(toResponse(uploadSessionService.getSession(user, sessionId)));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<?> completeSession(@AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable String sessionId) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            documents fileDetails = uploadSessionService.completeSession(user, sessionId);
+            // Same as the other upload paths: verification, indexing and the thumbnail follow as jobs
+            return ResponseEntity.accepted().location(statusUri(fileDetails))
+                    .body(new fileResponse(fileDetails.getFileName(), "File uploaded successfully"));
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            log.error("Exception while completing upload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Exception while completing upload: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<?> abortSession(@AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable String sessionId) {
+        try {
+            User user = userService.findCurrentUser(principal);
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+            }
+
+            uploadSessionService.abortSession(user, sessionId);
+            return ResponseEntity.noContent().build();
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found or unauthorized.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    private uploadSessionResponse toResponse(UploadSession session) {
+        return new uploadSessionResponse(session.getId(), session.getFileName(), session.getTotalSize(),
+                session.getChunkSize(), session.getTotalChunks(),
+                uploadSessionService.getReceivedChunks(session.getId()));
+    }
+
+    private URI statusUri(documents document) {
+        return URI.create("/api/documents/" + document.getId() + "/status");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stored file body, keyed by its SHA-256. Any number of {@link documents}
+ * rows may point at the same blob; {@code refCount} tracks how many do.
+ *
+ * Blobs not downloaded for a while move to the {@link Tier#COLD} tier and are
+ * stored gzip-compressed when that saves space; {@code size} stays the
+ * original length and {@code storedSize} is what the file takes on disk.
+ */
+@Entity
+@Table(name = "blobs")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class Blob {
+
+    public enum Tier {
+        HOT, COLD
+    }
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private Long size;
+
+    private Long refCount;
+
+    private Date createdAt;
+
+    // Rows from before tiering have no tier and count as HOT
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private Tier tier;
+
+    private Long storedSize;
+
+    private Date lastAccessed;
+}
@@ -0,0 +1,47 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A file that should be removed from disk. Written in the same transaction
+ * that deletes the metadata, then processed by the background reclaimer, so a
+ * slow or failing disk never blocks the request and nothing is orphaned.
+ */
+@Entity
+@Table(name = "blob_tombstones", indexes = @Index(name = "idx_tombstones_due", columnList = "nextAttemptAt"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class BlobTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Content hash of an unreferenced blob, or null for a legacy flat file
+    @Column(length = 64)
+    private String hash;
+
+    // Legacy file name under uploads/ when hash is null; with a hash, the form
+    // of that blob (raw or .gz, relative to uploads/) retired by a tier change
+    private String path;
+
+    private Date createdAt;
+
+    private Integer attempts;
+
+    private Date nextAttemptAt;
+
+    private String lastError;
+}
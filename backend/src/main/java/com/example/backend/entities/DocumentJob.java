@@ -0,0 +1,76 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A unit of post-upload work on one document. Rows are written in the same
+ * transaction as the document, so nothing is lost if the process stops before
+ * they run, and claimed by {@link com.example.backend.jobs.JobWorker}. Each
+ * type is safe to run more than once; a document has at most one job per type.
+ */
+@Entity
+@Table(name = "document_jobs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_document_jobs_type", columnNames = { "documentId", "type" }),
+        indexes = @Index(name = "idx_document_jobs_due", columnList = "status, nextAttemptAt"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class DocumentJob {
+
+    public enum Type {
+        // Re-hash the stored blob and compare it with the hash taken during upload
+        VERIFY,
+        // Extract the text and add it to the owner's search index
+        INDEX,
+        // Render the first-page thumbnail
+        THUMBNAIL
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    // Pooled like documents so a batch upload's jobs go in as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_jobs_seq")
+    @SequenceGenerator(name = "document_jobs_seq", sequenceName = "document_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Status status;
+
+    private Integer attempts;
+
+    private Date nextAttemptAt;
+
+    // A RUNNING job whose lease has passed was abandoned (crash, restart) and is claimed again
+    private Date lockedUntil;
+
+    private String lastError;
+
+    private Date createdAt;
+
+    private Date updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One refresh token, stored as the SHA-256 of its value. Each refresh uses
+ * the token up and issues a successor in the same family; presenting a used
+ * token again means it was copied, so the whole family is revoked, together
+ * with the access tokens issued alongside it that have not expired yet.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "familyId"),
+        @Index(name = "idx_refresh_tokens_user", columnList = "userId"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt") })
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RefreshToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenHash;
+
+    private Long userId;
+
+    // Shared by a login's token and all of its rotations
+    @Column(length = 36, nullable = false)
+    private String familyId;
+
+    private Date expiresAt;
+
+    private Date createdAt;
+
+    // Set when the token is exchanged for a new pair
+    private Date usedAt;
+
+    private Date revokedAt;
+
+    // The access token issued with this refresh token, revoked along with the family
+    @Column(length = 36)
+    private String accessTokenId;
+
+    private Date accessExpiresAt;
+}
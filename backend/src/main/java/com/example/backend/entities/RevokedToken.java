@@ -0,0 +1,46 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An access token (by its jti) that must be rejected before it expires.
+ * Requests never read this table: every instance copies it into
+ * {@link com.example.backend.config.TokenRevocationList} and keeps the copy
+ * current by polling for recent rows. A row is useless once the token has
+ * expired and is deleted then.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "uk_revoked_tokens_jti", columnList = "jti", unique = true),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt") })
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 36, nullable = false)
+    private String jti;
+
+    private Long userId;
+
+    // When the token itself expires
+    private Date expiresAt;
+
+    private Date revokedAt;
+}
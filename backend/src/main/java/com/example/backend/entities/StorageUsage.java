@@ -0,0 +1,39 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running total of what a user stores, so quota checks never sum their
+ * documents. Uploads and deletes adjust it in their own transaction;
+ * {@link com.example.backend.storage.StorageUsageReconciler} recomputes it
+ * from the documents table now and then to correct any drift.
+ *
+ * Sizes are the documents' own sizes, so a file the user uploads twice
+ * counts twice even though the blob store keeps one copy.
+ */
+@Entity
+@Table(name = "storage_usage")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class StorageUsage {
+
+    @Id
+    private Long userId;
+
+    private Long usedBytes;
+
+    private Long fileCount;
+
+    // Per-user override; null means app.storage.quota.default
+    private Long quotaBytes;
+
+    private Date updatedAt;
+}
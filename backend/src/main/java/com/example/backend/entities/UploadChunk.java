@@ -0,0 +1,36 @@
+package com.example.backend.entities;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Marks one chunk of an {@link UploadSession} as fully written to disk. */
+@Entity
+@Table(name = "upload_chunks")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class UploadChunk {
+
+    @EmbeddedId
+    private Key id;
+
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Data
+    public static class Key implements Serializable {
+
+        @Column(length = 36)
+        private String sessionId;
+
+        private Integer chunkIndex;
+    }
+}
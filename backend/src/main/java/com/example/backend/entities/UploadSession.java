@@ -0,0 +1,42 @@
+package com.example.backend.entities;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A chunked upload in progress. The bytes accumulate in a preallocated part
+ * file under uploads/.incoming; received chunk indexes are recorded in
+ * {@link UploadChunk} so the client can resume after a dropped connection.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String fileName;
+
+    private Long totalSize;
+
+    private Long chunkSize;
+
+    private Integer totalChunks;
+
+    private Date createdAt;
+
+    @ManyToOne
+    private User user;
+}
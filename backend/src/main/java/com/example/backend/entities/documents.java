@@ -2,34 +2,51 @@ package com.example.backend.entities;
 
 import java.util.Date;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "documents")
+@Table(indexes = @Index(name = "idx_documents_user_upload", columnList = "user_id, uploadDate, id"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @RequestMapping("/api")
 public class documents {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can
+    // batch inserts; ids are handed out 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documents_seq")
+    @SequenceGenerator(name = "documents_seq", sequenceName = "documents_seq", allocationSize = 50)
     private Long id;
 
-    @jakarta.persistence.Column(unique = true)
+    // Display name only; the bytes are addressed by blobHash
     private String fileName;
 
     private Date uploadDate;
 
     private Long fileSize;
 
+    // Hex SHA-256 of the content, pointing at the shared row in blobs.
+    // Null for files uploaded before the blob store existed.
+    @jakarta.persistence.Column(length = 64)
+    private String blobHash;
+
     @ManyToOne
     private User user;
 }
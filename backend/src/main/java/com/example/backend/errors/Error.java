@@ -2,8 +2,10 @@ package com.example.backend.errors;
 
 import java.util.Date;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -26,4 +28,51 @@ public class Error extends Exception {
 
         return new ResponseEntity<ErrorDetails>(errorDetails, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDetails> handleTooManyRequests(
+            TooManyRequestsException e,
+            WebRequest req) {
+
+        ErrorDetails errorDetails = new ErrorDetails(e.getMessage(), req.getDescription(false),
+                new Date(System.currentTimeMillis()));
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<ErrorDetails> handleQuotaExceeded(
+            QuotaExceededException e,
+            WebRequest req) {
+
+        ErrorDetails errorDetails = new ErrorDetails(e.getMessage(), req.getDescription(false),
+                new Date(System.currentTimeMillis()));
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorDetails);
+    }
+
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<ErrorDetails> handleUploadConflict(
+            UploadConflictException e,
+            WebRequest req) {
+
+        ErrorDetails errorDetails = new ErrorDetails(e.getMessage(), req.getDescription(false),
+                new Date(System.currentTimeMillis()));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorDetails);
+    }
+
+    // The token is valid but its account no longer exists
+    @ExceptionHandler(UsernameNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleUserNotFound(
+            UsernameNotFoundException e,
+            WebRequest req) {
+
+        ErrorDetails errorDetails = new ErrorDetails(e.getMessage(), req.getDescription(false),
+                new Date(System.currentTimeMillis()));
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorDetails);
+    }
 }
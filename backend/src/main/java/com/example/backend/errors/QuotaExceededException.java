@@ -0,0 +1,9 @@
+package com.example.backend.errors;
+
+/** Thrown when an upload would take a user past their storage quota; answered with 413. */
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.errors;
+
+/** Thrown when a bounded resource is saturated; answered with 429 and Retry-After. */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.backend.errors;
+
+/**
+ * Thrown when an upload session is already completed, aborted or being
+ * completed by another request; answered with 409. An IllegalStateException
+ * so callers that map those to 409 need no extra case.
+ */
+public class UploadConflictException extends IllegalStateException {
+
+    public UploadConflictException(String message) {
+        super(message);
+    }
+}
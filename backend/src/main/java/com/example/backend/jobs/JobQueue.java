@@ -0,0 +1,140 @@
+package com.example.backend.jobs;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.entities.DocumentJob;
+import com.example.backend.entities.documents;
+import com.example.backend.repositories.documentJobRepository;
+
+/**
+ * Post-upload work kept in the document_jobs table. Jobs are enqueued in the
+ * upload's own transaction, which the upload only opens once the blob is at
+ * its content address, so a job is never claimable before its file is in
+ * place. Claims carry a lease: a claimed job that is neither completed nor
+ * failed before app.jobs.lease runs out (the process died or was restarted)
+ * becomes claimable again. Failures are retried with exponential backoff
+ * until app.jobs.max-attempts; finished jobs are deleted after
+ * app.jobs.done-retention.
+ */
+@Component
+public class JobQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(JobQueue.class);
+
+    // One of each per uploaded document
+    private static final DocumentJob.Type[] UPLOAD_JOBS = { DocumentJob.Type.VERIFY, DocumentJob.Type.INDEX,
+            DocumentJob.Type.THUMBNAIL };
+
+    @Autowired
+    private documentJobRepository documentJobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.jobs.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.jobs.backoff:10s}")
+    private Duration backoff;
+
+    @Value("${app.jobs.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${app.jobs.done-retention:7d}")
+    private Duration doneRetention;
+
+    /**
+     * Queues the upload jobs for new documents. Must run inside the caller's
+     * transaction, after the documents' blobs have been placed.
+     */
+    public void enqueueUploads(Collection<documents> saved) {
+        Date now = new Date();
+        List<DocumentJob> jobs = new ArrayList<>(saved.size() * UPLOAD_JOBS.length);
+        for (documents document : saved) {
+            for (DocumentJob.Type type : UPLOAD_JOBS) {
+                jobs.add(new DocumentJob(null, document.getId(), type, DocumentJob.Status.PENDING, 0, now, null,
+                        null, now, now));
+            }
+        }
+        documentJobRepository.saveAll(jobs);
+    }
+
+    /** Drops the jobs of deleted documents. Must run inside the caller's transaction. */
+    public void deleteForDocuments(Collection<Long> documentIds) {
+        documentJobRepository.deleteByDocumentIds(documentIds);
+    }
+
+    public List<DocumentJob> findForDocument(Long documentId) {
+        return documentJobRepository.findByDocumentIdOrderById(documentId);
+    }
+
+    /** Leases up to {@code max} due jobs to the caller; other instances skip them. */
+    List<DocumentJob> claim(int max) {
+        return transactionTemplate.execute(status -> {
+            Date now = new Date();
+            List<DocumentJob> jobs = documentJobRepository.findClaimable(now, Limit.of(max));
+            for (DocumentJob job : jobs) {
+                job.setStatus(DocumentJob.Status.RUNNING);
+                job.setAttempts(job.getAttempts() == null ? 1 : job.getAttempts() + 1);
+                job.setLockedUntil(new Date(now.getTime() + lease.toMillis()));
+                job.setUpdatedAt(now);
+            }
+            return jobs;
+        });
+    }
+
+    void complete(DocumentJob job) {
+        Date now = new Date();
+        if (documentJobRepository.finish(job.getId(), job.getAttempts(), DocumentJob.Status.DONE, now, null,
+                now) == 0) {
+            logStale(job);
+        }
+    }
+
+    // Returns true when the job will be retried
+    boolean fail(DocumentJob job, Exception e) {
+        Date now = new Date();
+        int attempts = job.getAttempts() == null ? 1 : job.getAttempts();
+        boolean retry = attempts < maxAttempts;
+
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (documentJobRepository.finish(job.getId(), job.getAttempts(),
+                retry ? DocumentJob.Status.PENDING : DocumentJob.Status.FAILED,
+                new Date(now.getTime() + backoffFor(attempts)),
+                error.length() > 255 ? error.substring(0, 255) : error, now) == 0) {
+            logStale(job);
+        }
+        return retry;
+    }
+
+    // The lease ran out and another worker claimed the job again, or it was deleted
+    private void logStale(DocumentJob job) {
+        log.info("Dropped the result of {} job {} attempt {}: no longer the current claim", job.getType(),
+                job.getId(), job.getAttempts());
+    }
+
+    /** Deletes jobs that finished successfully more than app.jobs.done-retention ago. */
+    int pruneDone() {
+        return documentJobRepository.deleteFinishedBefore(DocumentJob.Status.DONE,
+                new Date(System.currentTimeMillis() - doneRetention.toMillis()));
+    }
+
+    long backoffFor(int attempts) {
+        return Math.min(maxBackoff.toMillis(), backoff.toMillis() << Math.min(attempts - 1, 20));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.backend.jobs;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.config.ExecutorConfig;
+import com.example.backend.entities.DocumentJob;
+import com.example.backend.entities.documents;
+import com.example.backend.repositories.fileRepository;
+import com.example.backend.search.DocumentIndexer;
+import com.example.backend.storage.BlobStore;
+import com.example.backend.storage.ThumbnailStore;
+
+/**
+ * Polls {@link JobQueue} and runs claimed jobs on the job pool. At most
+ * app.jobs.batch-size jobs are claimed but unfinished at any time, so a slow
+ * job type holds back new claims instead of stretching other leases.
+ */
+@Component
+public class JobWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(JobWorker.class);
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    @Autowired
+    private fileRepository fileRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private DocumentIndexer documentIndexer;
+
+    @Autowired
+    private ThumbnailStore thumbnailStore;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.JOB_EXECUTOR)
+    private Executor jobExecutor;
+
+    @Value("${app.jobs.batch-size:20}")
+    private int batchSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval:PT1S}")
+    public void poll() {
+        int free = batchSize - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+
+        List<DocumentJob> jobs = jobQueue.claim(free);
+        for (DocumentJob job : jobs) {
+            inFlight.incrementAndGet();
+            try {
+                jobExecutor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                // Stays RUNNING and is claimed again once its lease runs out
+                inFlight.decrementAndGet();
+                log.warn("Job pool rejected job {}", job.getId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.prune-interval:PT1H}")
+    public void pruneDone() {
+        int pruned = jobQueue.pruneDone();
+        if (pruned > 0) {
+            log.debug("Pruned {} finished jobs", pruned);
+        }
+    }
+
+    private void run(DocumentJob job) {
+        try {
+            execute(job);
+            jobQueue.complete(job);
+        } catch (Exception e) {
+            boolean retry = jobQueue.fail(job, e);
+            log.warn("{} job for document {} failed (attempt {}{}): {}", job.getType(), job.getDocumentId(),
+                    job.getAttempts(), retry ? ", will retry" : ", giving up", e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Every job type must be safe to run again after a crash or a lost lease
+    void execute(DocumentJob job) throws Exception {
+        documents document = fileRepository.findById(job.getDocumentId()).orElse(null);
+        if (document == null) {
+            return; // deleted since it was queued
+        }
+
+        switch (job.getType()) {
+            case VERIFY -> {
+                if (document.getBlobHash() != null) {
+                    blobStore.verify(document.getBlobHash());
+                }
+            }
+            case INDEX -> documentIndexer.index(document);
+            case THUMBNAIL -> thumbnailStore.generate(document);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.backend.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+
+    private String fileName;
+    private Long totalSize;
+    private Long chunkSize;
+}
@@ -0,0 +1,83 @@
+package com.example.backend.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.entities.Blob;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface blobRepository extends JpaRepository<Blob, String> {
+
+    interface StoredTotals {
+        long getBytes();
+
+        long getFiles();
+    }
+
+    // Native DML names the table it touches; without that Hibernate cannot tell
+    // and empties every second-level cache region on each upload and delete
+
+    // Insert the blob or bump its reference count in a single statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "blobs"))
+    @Query(value = "INSERT INTO blobs (hash, size, ref_count, created_at, tier, stored_size, last_accessed) "
+            + "VALUES (:hash, :size, 1, NOW(), 'HOT', :size, NOW()) "
+            + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, last_accessed = NOW()", nativeQuery = true)
+    int retain(@Param("hash") String hash, @Param("size") long size);
+
+    // Queue unreferenced blobs for the reclaimer before their rows are removed
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "blob_tombstones"))
+    @Query(value = "INSERT INTO blob_tombstones (hash, created_at, attempts, next_attempt_at) "
+            + "SELECT hash, NOW(), 0, NOW() FROM blobs WHERE hash IN (:hashes) AND ref_count <= 0",
+            nativeQuery = true)
+    int tombstoneUnreferenced(@Param("hashes") Collection<String> hashes);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "blobs"))
+    @Query(value = "DELETE FROM blobs WHERE hash IN (:hashes) AND ref_count <= 0", nativeQuery = true)
+    int deleteUnreferenced(@Param("hashes") Collection<String> hashes);
+
+    // Referenced blobs still in the hot tier that nobody has read since the cutoff
+    @Query("SELECT b FROM Blob b WHERE (b.tier IS NULL OR b.tier = com.example.backend.entities.Blob.Tier.HOT) "
+            + "AND b.refCount > 0 AND COALESCE(b.lastAccessed, b.createdAt) < :cutoff "
+            + "ORDER BY COALESCE(b.lastAccessed, b.createdAt)")
+    List<Blob> findColdCandidates(@Param("cutoff") Date cutoff, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Blob b SET b.tier = com.example.backend.entities.Blob.Tier.COLD, b.storedSize = :storedSize "
+            + "WHERE b.hash = :hash")
+    int markCold(@Param("hash") String hash, @Param("storedSize") long storedSize);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Blob b SET b.tier = com.example.backend.entities.Blob.Tier.HOT, b.storedSize = b.size, "
+            + "b.lastAccessed = :now WHERE b.hash = :hash")
+    int markHot(@Param("hash") String hash, @Param("now") Date now);
+
+    // At most one write per blob per staleBefore window, however often it is downloaded
+    @Transactional
+    @Modifying
+    @Query("UPDATE Blob b SET b.lastAccessed = :now "
+            + "WHERE b.hash = :hash AND (b.lastAccessed IS NULL OR b.lastAccessed < :staleBefore)")
+    int touch(@Param("hash") String hash, @Param("now") Date now, @Param("staleBefore") Date staleBefore);
+
+    // What the blob files take on disk: compressed size for cold blobs
+    @Query("select coalesce(sum(coalesce(b.storedSize, b.size)), 0) as bytes, count(b) as files from Blob b")
+    StoredTotals sumStored();
+}
@@ -0,0 +1,19 @@
+package com.example.backend.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.backend.entities.BlobTombstone;
+
+@Repository
+public interface blobTombstoneRepository extends JpaRepository<BlobTombstone, Long> {
+
+    @Query("select t from BlobTombstone t where t.nextAttemptAt <= :now order by t.nextAttemptAt")
+    List<BlobTombstone> findDue(@Param("now") Date now, Limit limit);
+}
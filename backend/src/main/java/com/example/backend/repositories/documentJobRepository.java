@@ -0,0 +1,60 @@
+package com.example.backend.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.jpa.SpecHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.entities.DocumentJob;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface documentJobRepository extends JpaRepository<DocumentJob, Long> {
+
+    // Due jobs plus running ones whose lease has expired. FOR UPDATE SKIP LOCKED
+    // lets several instances claim disjoint batches without waiting on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // A lock timeout of -2 means SKIP LOCKED
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select j from DocumentJob j "
+            + "where (j.status = com.example.backend.entities.DocumentJob.Status.PENDING and j.nextAttemptAt <= :now) "
+            + "or (j.status = com.example.backend.entities.DocumentJob.Status.RUNNING and j.lockedUntil < :now) "
+            + "order by j.nextAttemptAt")
+    List<DocumentJob> findClaimable(@Param("now") Date now, Limit limit);
+
+    List<DocumentJob> findByDocumentIdOrderById(Long documentId);
+
+    // Only the claim that is still current can finish the job: a worker whose
+    // lease ran out and was re-claimed holds an older attempt number. Also a
+    // no-op when the document, and with it the job, was deleted while the job ran
+    @Transactional
+    @Modifying
+    @Query("update DocumentJob j set j.status = :status, j.lockedUntil = null, j.nextAttemptAt = :nextAttemptAt, "
+            + "j.lastError = :lastError, j.updatedAt = :now where j.id = :id and j.attempts = :attempts "
+            + "and j.status = com.example.backend.entities.DocumentJob.Status.RUNNING")
+    int finish(@Param("id") Long id, @Param("attempts") Integer attempts, @Param("status") DocumentJob.Status status,
+            @Param("nextAttemptAt") Date nextAttemptAt, @Param("lastError") String lastError,
+            @Param("now") Date now);
+
+    @Modifying
+    @Query("delete from DocumentJob j where j.documentId in :documentIds")
+    int deleteByDocumentIds(@Param("documentIds") Collection<Long> documentIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DocumentJob j where j.status = :status and j.updatedAt < :before")
+    int deleteFinishedBefore(@Param("status") DocumentJob.Status status, @Param("before") Date before);
+}
@@ -1,13 +1,27 @@
 package com.example.backend.repositories;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.backend.entities.User;
 import com.example.backend.entities.documents;
+import com.example.backend.response.documentExport;
+import com.example.backend.response.documentSummary;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface fileRepository extends JpaRepository<documents, Long> {
@@ -16,5 +30,47 @@ public interface fileRepository extends JpaRepository<documents, Long> {
 
     documents deleteByIdAndUser(Long id, User user);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<documents> findByIdAndUser(Long id, User user);
-}
\ No newline at end of file
+
+    interface DocumentRef {
+        Long getId();
+
+        String getBlobHash();
+
+        String getFileName();
+
+        Long getFileSize();
+    }
+
+    @Query("select d.id as id, d.blobHash as blobHash, d.fileName as fileName, d.fileSize as fileSize "
+            + "from documents d "
+            + "where d.user.id = :userId and d.id in :ids")
+    List<DocumentRef> findRefs(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from documents d where d.user.id = :userId and d.id in :ids")
+    int deleteAllByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Keyset pagination over (uploadDate, id) newest first, served by idx_documents_user_upload
+    @Query("select new com.example.backend.response.documentSummary(d.id, d.fileName, d.uploadDate, d.fileSize) "
+            + "from documents d where d.user.id = :userId "
+            + "order by d.uploadDate desc, d.id desc")
+    List<documentSummary> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("select new com.example.backend.response.documentSummary(d.id, d.fileName, d.uploadDate, d.fileSize) "
+            + "from documents d where d.user.id = :userId "
+            + "and (d.uploadDate < :uploadDate or (d.uploadDate = :uploadDate and d.id < :id)) "
+            + "order by d.uploadDate desc, d.id desc")
+    List<documentSummary> findPageAfter(@Param("userId") Long userId, @Param("uploadDate") Date uploadDate,
+            @Param("id") Long id, Limit limit);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select new com.example.backend.response.documentExport(d.id, d.fileName, d.uploadDate, d.fileSize, "
+            + "d.blobHash) from documents d where d.user.id = :userId order by d.id")
+    Stream<documentExport> streamAllByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,46 @@
+package com.example.backend.repositories;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.entities.RefreshToken;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface refreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Two refreshes with the same token queue here, so only one can rotate it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from RefreshToken t where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> lockByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Access tokens issued in the family that are still worth revoking
+    @Query("select t from RefreshToken t where t.familyId = :familyId and t.accessExpiresAt > :now")
+    List<RefreshToken> findLiveAccessTokensByFamily(@Param("familyId") String familyId, @Param("now") Date now);
+
+    @Query("select t from RefreshToken t where t.userId = :userId and t.accessExpiresAt > :now")
+    List<RefreshToken> findLiveAccessTokensByUser(@Param("userId") Long userId, @Param("now") Date now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") Date now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.userId = :userId and t.revokedAt is null")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Date now);
+}
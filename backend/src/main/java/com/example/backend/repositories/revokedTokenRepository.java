@@ -0,0 +1,37 @@
+package com.example.backend.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.entities.RevokedToken;
+
+@Repository
+public interface revokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // A token revoked twice (logout racing reuse detection) keeps its first row
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, user_id, expires_at, revoked_at) "
+            + "VALUES (:jti, :userId, :expiresAt, :revokedAt) ON DUPLICATE KEY UPDATE jti = jti", nativeQuery = true)
+    int insert(@Param("jti") String jti, @Param("userId") Long userId, @Param("expiresAt") Date expiresAt,
+            @Param("revokedAt") Date revokedAt);
+
+    // Everything still worth rejecting, for the initial load
+    @Query("select t from RevokedToken t where t.expiresAt > :now and t.id > :after order by t.id")
+    List<RevokedToken> findUnexpired(@Param("now") Date now, @Param("after") Long after, Limit limit);
+
+    @Query("select t from RevokedToken t where t.revokedAt >= :since and t.expiresAt > :now")
+    List<RevokedToken> findRevokedSince(@Param("since") Date since, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Date now);
+}
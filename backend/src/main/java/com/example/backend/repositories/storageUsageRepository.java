@@ -0,0 +1,67 @@
+package com.example.backend.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.backend.entities.StorageUsage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface storageUsageRepository extends JpaRepository<StorageUsage, Long> {
+
+    interface UsageTotals {
+        long getBytes();
+
+        long getFiles();
+    }
+
+    // Adds to the user's usage only if the result stays within their quota, as
+    // one statement on one row; 0 means over quota or no row yet
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "UPDATE storage_usage SET used_bytes = used_bytes + :bytes, file_count = file_count + :files, "
+            + "updated_at = NOW() WHERE user_id = :userId "
+            + "AND used_bytes + :bytes <= COALESCE(quota_bytes, :defaultQuota)", nativeQuery = true)
+    int reserve(@Param("userId") Long userId, @Param("bytes") long bytes, @Param("files") long files,
+            @Param("defaultQuota") long defaultQuota);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "UPDATE storage_usage SET used_bytes = GREATEST(used_bytes - :bytes, 0), "
+            + "file_count = GREATEST(file_count - :files, 0), updated_at = NOW() WHERE user_id = :userId",
+            nativeQuery = true)
+    int release(@Param("userId") Long userId, @Param("bytes") long bytes, @Param("files") long files);
+
+    // First use of the counter for a user: start it from their existing documents
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "INSERT IGNORE INTO storage_usage (user_id, used_bytes, file_count, updated_at) "
+            + "SELECT :userId, COALESCE(SUM(file_size), 0), COUNT(*), NOW() FROM documents WHERE user_id = :userId",
+            nativeQuery = true)
+    int initialize(@Param("userId") Long userId);
+
+    @Query(value = "SELECT COALESCE(SUM(file_size), 0) AS bytes, COUNT(*) AS files FROM documents "
+            + "WHERE user_id = :userId", nativeQuery = true)
+    UsageTotals sumDocuments(@Param("userId") Long userId);
+
+    // Holds the row so no upload or delete for this user commits while it is recomputed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from StorageUsage u where u.userId = :userId")
+    Optional<StorageUsage> lockByUserId(@Param("userId") Long userId);
+
+    @Query("select u.userId from StorageUsage u where u.userId > :after order by u.userId")
+    List<Long> findUserIdsAfter(@Param("after") Long after, Limit limit);
+}
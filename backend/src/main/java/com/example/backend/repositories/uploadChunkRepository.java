@@ -0,0 +1,39 @@
+package com.example.backend.repositories;
+
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.entities.UploadChunk;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface uploadChunkRepository extends JpaRepository<UploadChunk, UploadChunk.Key> {
+
+    // Re-sending a chunk is expected when resuming, so duplicates are ignored
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "upload_chunks"))
+    @Query(value = "INSERT IGNORE INTO upload_chunks (session_id, chunk_index) VALUES (:sessionId, :chunkIndex)",
+            nativeQuery = true)
+    int markReceived(@Param("sessionId") String sessionId, @Param("chunkIndex") int chunkIndex);
+
+    @Query("select c.id.chunkIndex from UploadChunk c where c.id.sessionId = :sessionId order by c.id.chunkIndex")
+    List<Integer> findReceivedChunks(@Param("sessionId") String sessionId);
+
+    @Query("select count(c) from UploadChunk c where c.id.sessionId = :sessionId")
+    long countReceived(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("delete from UploadChunk c where c.id.sessionId = :sessionId")
+    int deleteBySession(@Param("sessionId") String sessionId);
+}
@@ -0,0 +1,26 @@
+package com.example.backend.repositories;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.backend.entities.UploadSession;
+import com.example.backend.entities.User;
+
+@Repository
+public interface uploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    Optional<UploadSession> findByIdAndUser(String id, User user);
+
+    List<UploadSession> findAllByCreatedAtBefore(Date cutoff);
+
+    @Modifying
+    @Query("delete from UploadSession s where s.id = :id")
+    int deleteSession(@Param("id") String id);
+}
@@ -1,14 +1,29 @@
 package com.example.backend.repositories;
 
+import org.hibernate.jpa.HibernateHints;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.backend.entities.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface userRepository extends JpaRepository<User, Long> {
 
+    // Resolves the id from the query cache; the row then comes from the "user" region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     User findByEmail(String username);
-    
-    
+
+    // Used to re-encode a hash after the BCrypt cost changes
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -9,7 +9,14 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class AuthResponse {
 
+    // Short-lived access token for the Authorization header
     private String token;
 
+    // Single use; exchanged at /auth/refresh for a new pair
+    private String refreshToken;
+
+    // Seconds until token expires
+    private Long expiresIn;
+
     private String message;
 }
@@ -0,0 +1,17 @@
+package com.example.backend.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Outcome of one file in a batch upload; {@code id} is set when it was stored. */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class batchUploadResult {
+
+    private String fileName;
+    private Long id;
+    private String status;
+    private String message;
+}
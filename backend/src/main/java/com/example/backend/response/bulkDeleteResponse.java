@@ -0,0 +1,18 @@
+package com.example.backend.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class bulkDeleteResponse {
+
+    private int deleted;
+
+    // Ids that do not exist or belong to another user
+    private List<Long> notFound;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.response;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One NDJSON line of the metadata export, including the content hash for reconciliation. */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class documentExport {
+
+    private Long id;
+    private String fileName;
+    private Date uploadDate;
+    private Long fileSize;
+    private String blobHash;
+}
@@ -0,0 +1,18 @@
+package com.example.backend.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class documentPage {
+
+    private List<documentSummary> items;
+
+    // Pass back as ?cursor= to get the next page; null on the last page
+    private String nextCursor;
+}
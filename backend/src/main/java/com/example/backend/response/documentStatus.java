@@ -0,0 +1,22 @@
+package com.example.backend.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class documentStatus {
+
+    private Long id;
+
+    private String fileName;
+
+    // processing, ready or failed
+    private String status;
+
+    private List<jobStatus> jobs;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.response;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Listing row built straight from the query; never touches the User entity. */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class documentSummary {
+
+    private Long id;
+    private String fileName;
+    private Date uploadDate;
+    private Long fileSize;
+}
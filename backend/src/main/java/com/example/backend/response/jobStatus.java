@@ -0,0 +1,25 @@
+package com.example.backend.response;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class jobStatus {
+
+    // VERIFY, INDEX or THUMBNAIL
+    private String type;
+
+    // PENDING, RUNNING, DONE or FAILED
+    private String status;
+
+    private Integer attempts;
+
+    private String lastError;
+
+    private Date updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.response;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A search result; snippet is HTML-escaped text with the matched terms wrapped in <b>. */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class searchHit {
+
+    private Long id;
+    private String fileName;
+    private Date uploadDate;
+    private float score;
+    private String snippet;
+}
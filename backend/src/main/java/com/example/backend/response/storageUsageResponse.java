@@ -0,0 +1,17 @@
+package com.example.backend.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class storageUsageResponse {
+
+    private long usedBytes;
+
+    private long quotaBytes;
+
+    private long fileCount;
+}
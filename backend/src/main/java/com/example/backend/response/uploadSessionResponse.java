@@ -0,0 +1,20 @@
+package com.example.backend.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class uploadSessionResponse {
+
+    private String sessionId;
+    private String fileName;
+    private Long totalSize;
+    private Long chunkSize;
+    private Integer totalChunks;
+    private List<Integer> receivedChunks;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One NDJSON line of a bulk user import; status is created, duplicate or invalid. */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class userImportResult {
+
+    // 1-based data row in the upload (the CSV header is not counted)
+    private long row;
+    private String email;
+    private String status;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,279 @@
+package com.example.backend.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.response.searchHit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * On-disk Lucene index of document text, one index directory per user under
+ * app.search.index-dir. A user's searches only ever open that user's index,
+ * and deleting an account's data is deleting one directory.
+ *
+ * Writers are opened on demand and closed again once idle, or least recently
+ * used first when more than app.search.max-open-indexes are open. Every use
+ * holds the read side of a striped lock and closing takes the write side, so
+ * an index is never closed under a running search or update. Every change is
+ * committed before the call returns.
+ */
+@Component
+public class DocumentIndex {
+
+    private static final String ID = "id";
+
+    private static final String FILE_NAME = "fileName";
+
+    private static final String CONTENT = "content";
+
+    private static final String UPLOAD_DATE = "uploadDate";
+
+    // Positions and offsets let the highlighter build snippets without re-analysing the text
+    private static final FieldType CONTENT_TYPE = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        CONTENT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        CONTENT_TYPE.freeze();
+    }
+
+    private final Path root;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final long maxOpen;
+
+    private final Duration idleClose;
+
+    private final ConcurrentHashMap<Long, UserIndex> open = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[64];
+
+    private record UserIndex(FSDirectory directory, IndexWriter writer, SearcherManager searchers,
+            AtomicLong lastUsed) {
+
+        void close() {
+            try {
+                searchers.close();
+                writer.close();
+                directory.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation<T> {
+        T apply(UserIndex index) throws IOException;
+    }
+
+    public DocumentIndex(
+            @Value("${app.search.index-dir:uploads/index}") String indexDir,
+            @Value("${app.search.max-open-indexes:256}") long maxOpen,
+            @Value("${app.search.idle-close:10m}") Duration idleClose) {
+        this.root = Paths.get(System.getProperty("user.dir")).resolve(indexDir);
+        this.maxOpen = maxOpen;
+        this.idleClose = idleClose;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public void add(Long userId, Long documentId, String fileName, Date uploadDate, String text)
+            throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, documentId.toString(), Field.Store.YES));
+        document.add(new TextField(FILE_NAME, fileName, Field.Store.YES));
+        document.add(new StoredField(UPLOAD_DATE, uploadDate != null ? uploadDate.getTime() : 0L));
+        document.add(new Field(CONTENT, text, CONTENT_TYPE));
+
+        withIndex(userId, index -> {
+            index.writer().updateDocument(new Term(ID, documentId.toString()), document);
+            commit(index);
+            return null;
+        });
+    }
+
+    public void delete(Long userId, Collection<Long> documentIds) throws IOException {
+        if (documentIds.isEmpty() || !Files.isDirectory(pathFor(userId))) {
+            return;
+        }
+        Term[] terms = documentIds.stream().map(id -> new Term(ID, id.toString())).toArray(Term[]::new);
+
+        withIndex(userId, index -> {
+            index.writer().deleteDocuments(terms);
+            commit(index);
+            return null;
+        });
+    }
+
+    public List<searchHit> search(Long userId, String queryText, int limit) throws IOException {
+        if (!Files.isDirectory(pathFor(userId))) {
+            return List.of();
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(FILE_NAME, 2f, CONTENT, 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+
+        return withIndex(userId, index -> {
+            IndexSearcher searcher = index.searchers().acquire();
+            try {
+                TopDocs top = searcher.search(query, limit);
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withFormatter(new DefaultPassageFormatter("<b>", "</b>", " ... ", true))
+                        .build();
+                String[] snippets = highlighter.highlight(CONTENT, query, top, 2);
+
+                List<searchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (int i = 0; i < top.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[i];
+                    Document stored = searcher.storedFields().document(scoreDoc.doc);
+                    Number uploaded = stored.getField(UPLOAD_DATE).numericValue();
+                    hits.add(new searchHit(Long.valueOf(stored.get(ID)), stored.get(FILE_NAME),
+                            new Date(uploaded.longValue()), scoreDoc.score, snippets[i]));
+                }
+                return hits;
+            } finally {
+                index.searchers().release(searcher);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.idle-check:PT1M}")
+    public void closeIdle() {
+        long cutoff = System.nanoTime() - idleClose.toNanos();
+        List<Map.Entry<Long, UserIndex>> entries = new ArrayList<>(open.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed().get()));
+
+        long excess = entries.size() - maxOpen;
+        for (Map.Entry<Long, UserIndex> entry : entries) {
+            if (excess > 0 || entry.getValue().lastUsed().get() < cutoff) {
+                close(entry.getKey());
+                excess--;
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        for (Long userId : List.copyOf(open.keySet())) {
+            close(userId);
+        }
+    }
+
+    private void close(Long userId) {
+        ReentrantReadWriteLock lock = lockFor(userId);
+        lock.writeLock().lock();
+        try {
+            UserIndex index = open.remove(userId);
+            if (index != null) {
+                index.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T withIndex(Long userId, IndexOperation<T> operation) throws IOException {
+        ReentrantReadWriteLock lock = lockFor(userId);
+        lock.readLock().lock();
+        try {
+            UserIndex index = open.get(userId);
+            if (index != null) {
+                return apply(index, operation);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Not open: open it under the write lock, which is only ever released
+        // here, then run the operation under the read lock taken before that
+        UserIndex index;
+        lock.writeLock().lock();
+        try {
+            index = open.get(userId);
+            if (index == null) {
+                index = openIndex(userId);
+                open.put(userId, index);
+            }
+            lock.readLock().lock(); // downgrade
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return apply(index, operation);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <T> T apply(UserIndex index, IndexOperation<T> operation) throws IOException {
+        index.lastUsed().set(System.nanoTime());
+        return operation.apply(index);
+    }
+
+    private UserIndex openIndex(Long userId) {
+        try {
+            FSDirectory directory = FSDirectory.open(pathFor(userId));
+            IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            return new UserIndex(directory, writer, new SearcherManager(writer, null),
+                    new AtomicLong(System.nanoTime()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open search index for user " + userId, e);
+        }
+    }
+
+    private void commit(UserIndex index) throws IOException {
+        index.writer().commit();
+        index.searchers().maybeRefreshBlocking();
+    }
+
+    private ReentrantReadWriteLock lockFor(Long userId) {
+        return locks[Math.floorMod(userId.hashCode(), locks.length)];
+    }
+
+    private Path pathFor(Long userId) {
+        return root.resolve(userId.toString());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.backend.search;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.config.ExecutorConfig;
+import com.example.backend.entities.documents;
+import com.example.backend.repositories.fileRepository;
+import com.example.backend.storage.BlobStore;
+
+/**
+ * Keeps the search index in step with uploads and deletes, off the request
+ * path. Adds run as INDEX jobs from the job queue, which retries them;
+ * removals run on the index thread through a serial queue per user. Failures never affect the document
+ * itself, it just does not show up in search.
+ */
+@Component
+public class DocumentIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentIndexer.class);
+
+    @Autowired
+    private DocumentIndex documentIndex;
+
+    @Autowired
+    private PdfTextExtractor pdfTextExtractor;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private fileRepository fileRepository;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.INDEX_EXECUTOR)
+    private Executor indexExecutor;
+
+    // Removal batches waiting per user; present while that user's queue is being drained
+    private final ConcurrentHashMap<Long, Deque<List<Long>>> pendingRemovals = new ConcurrentHashMap<>();
+
+    /**
+     * Extracts and indexes one document; run by the INDEX job. If the document
+     * was deleted while its text was being extracted, the entry is removed
+     * again so a late add cannot outlive the delete.
+     */
+    public void index(documents document) throws IOException {
+        Long userId = document.getUser().getId();
+        Long id = document.getId();
+        Path file = blobStore.resolve(document);
+
+        documentIndex.add(userId, id, document.getFileName(), document.getUploadDate(), extract(file));
+        if (!fileRepository.existsById(id)) {
+            documentIndex.delete(userId, List.of(id));
+        }
+    }
+
+    private String extract(Path file) throws IOException {
+        if (!BlobStore.isCompressed(file)) {
+            return pdfTextExtractor.extract(file);
+        }
+        // Cold tier: PDFBox needs random access, so unpack to a scratch file first
+        Path incoming = blobStore.getIncomingDir();
+        Files.createDirectories(incoming);
+        Path unpacked = Files.createTempFile(incoming, "index-", ".pdf");
+        try {
+            try (InputStream in = BlobStore.openDecompressed(file)) {
+                Files.copy(in, unpacked, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return pdfTextExtractor.extract(unpacked);
+        } finally {
+            Files.deleteIfExists(unpacked);
+        }
+    }
+
+    /**
+     * Queues removals per user. A user's removals run one batch at a time, in
+     * the order they were queued, and whatever piled up meanwhile is merged
+     * into the next delete.
+     */
+    public void removeAsync(Long userId, Collection<Long> documentIds) {
+        List<Long> ids = List.copyOf(documentIds);
+        boolean[] first = new boolean[1];
+        pendingRemovals.compute(userId, (key, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                first[0] = true;
+            }
+            queue.add(ids);
+            return queue;
+        });
+        if (first[0]) {
+            try {
+                indexExecutor.execute(() -> drainRemovals(userId));
+            } catch (RejectedExecutionException e) {
+                // Still the only drainer for this user, so running it here keeps the order
+                drainRemovals(userId);
+            }
+        }
+    }
+
+    private void drainRemovals(Long userId) {
+        while (true) {
+            List<Long> ids = new ArrayList<>();
+            // Takes everything queued, or removes the user's entry once nothing is left
+            pendingRemovals.computeIfPresent(userId, (key, queue) -> {
+                queue.forEach(ids::addAll);
+                queue.clear();
+                return ids.isEmpty() ? null : queue;
+            });
+            if (ids.isEmpty()) {
+                return;
+            }
+            try {
+                documentIndex.delete(userId, ids);
+            } catch (Exception e) {
+                log.warn("Failed to remove documents {} from the index: {}", ids, e.getMessage());
+            }
+        }
+    }
+}
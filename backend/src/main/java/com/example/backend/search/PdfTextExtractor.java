@@ -0,0 +1,37 @@
+package com.example.backend.search;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain text of a stored PDF for the search index. PDFBox buffers parsed
+ * streams in temp files rather than the heap, and the text is cut off at
+ * app.search.max-chars so one huge scan cannot dominate memory or the index.
+ */
+@Component
+public class PdfTextExtractor {
+
+    private final int maxChars;
+
+    public PdfTextExtractor(@Value("${app.search.max-chars:1000000}") int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    public String extract(Path file) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(file.toFile()), null, null,
+                null, IOUtils.createTempFileOnlyStreamCache())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            String text = stripper.getText(document);
+            return text.length() > maxChars ? text.substring(0, maxChars) : text;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.services;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/** Spring Security user that also carries our database id for token issuing. */
+public class CustomUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+
+    public CustomUserDetails(Long id, String username, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.services;
+
+/**
+ * BCrypt off the request path. Calls block the caller until the hash is done,
+ * but run on a small dedicated pool; when that pool's queue is full they fail
+ * with TooManyRequestsException instead of waiting.
+ */
+public interface PasswordHashingService {
+
+    public String encode(String rawPassword);
+
+    public boolean matches(String rawPassword, String encodedPassword);
+
+    // Best effort: re-encodes in the background if the stored cost differs
+    // from the configured one; skipped when the pool is busy
+    public void upgradeIfNeeded(Long userId, String rawPassword, String encodedPassword);
+
+}
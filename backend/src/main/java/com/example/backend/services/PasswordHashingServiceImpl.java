@@ -0,0 +1,107 @@
+package com.example.backend.services;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.config.ExecutorConfig;
+import com.example.backend.errors.TooManyRequestsException;
+import com.example.backend.repositories.userRepository;
+
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingServiceImpl.class);
+
+    // $2a$10$... -> cost 10
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.PASSWORD_HASH_EXECUTOR)
+    private AsyncTaskExecutor passwordHashExecutor;
+
+    @Autowired
+    private userRepository userRepository;
+
+    @Value("${app.auth.bcrypt-strength:10}")
+    private int strength;
+
+    @Value("${app.auth.hash-timeout:10s}")
+    private Duration timeout;
+
+    @Value("${app.auth.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Override
+    public String encode(String rawPassword) {
+        return call(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return call(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public void upgradeIfNeeded(Long userId, String rawPassword, String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword == null ? "" : encodedPassword);
+        if (!matcher.find() || Integer.parseInt(matcher.group(1)) == strength) {
+            return;
+        }
+
+        try {
+            passwordHashExecutor.execute(() -> userRepository.updatePassword(userId, passwordEncoder.encode(rawPassword)));
+        } catch (RejectedExecutionException e) {
+            // Pool is busy; the next login tries again
+            log.debug("Skipped password re-encode for user {}: hash pool saturated", userId);
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = passwordHashExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw tooManyRequests();
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw tooManyRequests();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private TooManyRequestsException tooManyRequests() {
+        return new TooManyRequestsException("Too many sign-in requests in progress, try again shortly",
+                Math.max(1, retryAfter.toSeconds()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.services;
+
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.response.AuthResponse;
+
+public interface TokenService {
+
+    public AuthResponse issue(Long userId, String email, String message);
+
+    public AuthResponse refresh(String refreshToken);
+
+    public void logout(UserPrincipal principal, String refreshToken);
+
+    public void logoutEverywhere(UserPrincipal principal);
+
+}
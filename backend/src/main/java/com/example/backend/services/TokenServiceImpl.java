@@ -0,0 +1,216 @@
+package com.example.backend.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.config.TokenRevocationList;
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.config.jwtProvider;
+import com.example.backend.entities.RefreshToken;
+import com.example.backend.entities.User;
+import com.example.backend.repositories.refreshTokenRepository;
+import com.example.backend.repositories.revokedTokenRepository;
+import com.example.backend.repositories.userRepository;
+import com.example.backend.response.AuthResponse;
+
+/**
+ * Access tokens live for app.auth.access-token-ttl and are checked against
+ * {@link TokenRevocationList} only. Refresh tokens are opaque random values,
+ * stored hashed, and rotate on every use; a used token presented again after
+ * app.auth.refresh-reuse-grace revokes every token descended from the same
+ * login, including the unexpired access tokens issued with them.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenServiceImpl.class);
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private refreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private revokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private userRepository userRepository;
+
+    @Autowired
+    private TokenRevocationList revocations;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.auth.access-token-ttl:15m}")
+    private Duration accessTokenTtl;
+
+    @Value("${app.auth.refresh-token-ttl:14d}")
+    private Duration refreshTokenTtl;
+
+    // Two tabs refreshing with the same token at once is not theft. A reuse
+    // inside this window is refused but revokes nothing, so the access token
+    // the first of the two refreshes minted stays valid until it expires.
+    @Value("${app.auth.refresh-reuse-grace:10s}")
+    private Duration reuseGrace;
+
+    @Override
+    public AuthResponse issue(Long userId, String email, String message) {
+        return transactionTemplate.execute(
+                status -> mint(userId, email, UUID.randomUUID().toString(), new Date(), message));
+    }
+
+    @Override
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadCredentialsException("Refresh token is required");
+        }
+
+        String tokenHash = digest(refreshToken);
+        List<RefreshToken> revoked = new ArrayList<>();
+        AuthResponse response = transactionTemplate.execute(status -> {
+            Date now = new Date();
+            RefreshToken current = refreshTokenRepository.lockByTokenHash(tokenHash).orElse(null);
+            if (current == null || current.getRevokedAt() != null || !current.getExpiresAt().after(now)) {
+                return null;
+            }
+            if (current.getUsedAt() != null) {
+                if (now.getTime() - current.getUsedAt().getTime() > reuseGrace.toMillis()) {
+                    revoked.addAll(revokeFamily(current.getFamilyId(), now));
+                    log.warn("Used refresh token presented again for user {}; revoked its session",
+                            current.getUserId());
+                }
+                return null;
+            }
+
+            User user = userRepository.findById(current.getUserId()).orElse(null);
+            if (user == null) {
+                return null;
+            }
+            current.setUsedAt(now);
+            return mint(user.getId(), user.getEmail(), current.getFamilyId(), now, "Token refreshed successfully");
+        });
+        publish(revoked);
+
+        if (response == null) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        return response;
+    }
+
+    @Override
+    public void logout(UserPrincipal principal, String refreshToken) {
+        List<RefreshToken> revoked = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Date now = new Date();
+            revokeAccessToken(principal, now);
+            if (refreshToken != null && !refreshToken.isBlank()) {
+                refreshTokenRepository.findById(digest(refreshToken))
+                        .ifPresent(token -> revoked.addAll(revokeFamily(token.getFamilyId(), now)));
+            }
+        });
+        publish(principal);
+        publish(revoked);
+    }
+
+    @Override
+    public void logoutEverywhere(UserPrincipal principal) {
+        List<RefreshToken> revoked = transactionTemplate.execute(status -> {
+            Date now = new Date();
+            revokeAccessToken(principal, now);
+            refreshTokenRepository.revokeAllForUser(principal.getId(), now);
+            return revokeAccessTokens(refreshTokenRepository.findLiveAccessTokensByUser(principal.getId(), now), now);
+        });
+        publish(principal);
+        publish(revoked);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-cleanup-interval:PT1H}")
+    public void deleteExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(new Date());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    // Issues an access token and a refresh token that remembers it. Runs in the caller's transaction.
+    private AuthResponse mint(Long userId, String email, String familyId, Date now, String message) {
+        String accessTokenId = UUID.randomUUID().toString();
+        String token = jwtProvider.generateToken(accessTokenId, email, userId, accessTokenTtl);
+
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // Taken after signing, so the revocation never lapses before the token does
+        Date accessExpiresAt = new Date(System.currentTimeMillis() + accessTokenTtl.toMillis());
+        refreshTokenRepository.save(new RefreshToken(digest(refreshToken), userId, familyId,
+                new Date(now.getTime() + refreshTokenTtl.toMillis()), now, null, null, accessTokenId,
+                accessExpiresAt));
+        return new AuthResponse(token, refreshToken, accessTokenTtl.toSeconds(), message);
+    }
+
+    // Revokes the family's refresh tokens and writes revocation rows for its live access tokens
+    private List<RefreshToken> revokeFamily(String familyId, Date now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        return revokeAccessTokens(refreshTokenRepository.findLiveAccessTokensByFamily(familyId, now), now);
+    }
+
+    private List<RefreshToken> revokeAccessTokens(List<RefreshToken> tokens, Date now) {
+        for (RefreshToken token : tokens) {
+            revokedTokenRepository.insert(token.getAccessTokenId(), token.getUserId(), token.getAccessExpiresAt(),
+                    now);
+        }
+        return tokens;
+    }
+
+    private void revokeAccessToken(UserPrincipal principal, Date now) {
+        if (principal == null || principal.getTokenId() == null || principal.getExpiresAt() <= now.getTime()) {
+            return;
+        }
+        revokedTokenRepository.insert(principal.getTokenId(), principal.getId(), new Date(principal.getExpiresAt()),
+                now);
+    }
+
+    // This instance stops accepting the tokens at once; others pick the rows up on their next poll
+    private void publish(List<RefreshToken> revoked) {
+        for (RefreshToken token : revoked) {
+            revocations.add(token.getAccessTokenId(), token.getAccessExpiresAt().getTime());
+        }
+    }
+
+    private void publish(UserPrincipal principal) {
+        if (principal != null) {
+            revocations.add(principal.getTokenId(), principal.getExpiresAt());
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.backend.services;
+
+import java.io.InputStream;
+import java.util.List;
+
+import com.example.backend.entities.UploadSession;
+import com.example.backend.entities.User;
+import com.example.backend.entities.documents;
+
+public interface UploadSessionService {
+
+    public UploadSession createSession(User user, String fileName, Long totalSize, Long chunkSize);
+
+    public UploadSession getSession(User user, String sessionId);
+
+    public List<Integer> getReceivedChunks(String sessionId);
+
+    public void writeChunk(User user, String sessionId, int index, InputStream in);
+
+    public documents completeSession(User user, String sessionId);
+
+    public void abortSession(User user, String sessionId);
+
+}
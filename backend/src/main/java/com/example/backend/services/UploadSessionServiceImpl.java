@@ -0,0 +1,254 @@
+package com.example.backend.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.backend.entities.UploadSession;
+import com.example.backend.entities.User;
+import com.example.backend.entities.documents;
+import com.example.backend.errors.UploadConflictException;
+import com.example.backend.repositories.uploadChunkRepository;
+import com.example.backend.repositories.uploadSessionRepository;
+import com.example.backend.storage.BlobStore;
+import com.example.backend.storage.PdfValidator;
+import com.example.backend.storage.StorageQuota;
+import com.example.backend.storage.StoredFile;
+import com.example.backend.storage.StreamingFileWriter;
+
+@Service
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    private static final long MIN_CHUNK_SIZE = DataSize.ofKilobytes(256).toBytes();
+
+    private static final long MAX_CHUNK_SIZE = DataSize.ofMegabytes(64).toBytes();
+
+    @Autowired
+    private uploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private uploadChunkRepository uploadChunkRepository;
+
+    @Autowired
+    private fileService fileService;
+
+    @Autowired
+    private PdfValidator pdfValidator;
+
+    @Autowired
+    private StreamingFileWriter streamingFileWriter;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private StorageQuota storageQuota;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.default-chunk-size:8MB}")
+    private DataSize defaultChunkSize;
+
+    @Value("${app.upload.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Override
+    public UploadSession createSession(User user, String fileName, Long totalSize, Long chunkSize) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        if (!fileName.toLowerCase().endsWith(".pdf")) {
+            throw new IllegalArgumentException("Only PDF files are allowed");
+        }
+        if (totalSize == null || totalSize <= 0) {
+            throw new IllegalArgumentException("totalSize must be a positive number of bytes");
+        }
+        if (totalSize > streamingFileWriter.getMaxFileSize()) {
+            throw new IllegalArgumentException(
+                    "File exceeds the maximum size of " + streamingFileWriter.getMaxFileSize() + " bytes");
+        }
+
+        // Refuse before any chunk is sent; completing the session reserves the space for real
+        storageQuota.checkRoom(user.getId(), totalSize);
+
+        long size = chunkSize != null ? chunkSize : defaultChunkSize.toBytes();
+        if (size < MIN_CHUNK_SIZE || size > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException(
+                    "chunkSize must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setFileName(Paths.get(fileName).getFileName().toString());
+        session.setTotalSize(totalSize);
+        session.setChunkSize(size);
+        session.setTotalChunks((int) ((totalSize + size - 1) / size));
+        session.setCreatedAt(new Date());
+        session.setUser(user);
+
+        try {
+            streamingFileWriter.preallocate(partPath(session.getId()), totalSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create upload session: " + e.getMessage(), e);
+        }
+        return uploadSessionRepository.save(session);
+    }
+
+    @Override
+    public UploadSession getSession(User user, String sessionId) {
+        return uploadSessionRepository.findByIdAndUser(sessionId, user)
+                .orElseThrow(() -> new RuntimeException("Upload session not found: " + sessionId));
+    }
+
+    @Override
+    public List<Integer> getReceivedChunks(String sessionId) {
+        return uploadChunkRepository.findReceivedChunks(sessionId);
+    }
+
+    @Override
+    public void writeChunk(User user, String sessionId, int index, InputStream in) {
+        UploadSession session = getSession(user, sessionId);
+
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new IllegalArgumentException(
+                    "Chunk index must be between 0 and " + (session.getTotalChunks() - 1));
+        }
+        long offset = index * session.getChunkSize();
+        long length = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+
+        try {
+            // The first chunk carries the header, so a non-PDF fails on its first buffer
+            streamingFileWriter.writeAt(in, partPath(sessionId), offset, length,
+                    offset == 0 ? pdfValidator.newHeaderScan() : null);
+        } catch (NoSuchFileException e) {
+            // The part file is claimed by a finalize in progress
+            throw new UploadConflictException("Upload session is being completed: " + sessionId);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write chunk " + index + ": " + e.getMessage(), e);
+        }
+        // Only recorded once the bytes are on disk, so a dropped chunk is simply re-sent
+        uploadChunkRepository.markReceived(sessionId, index);
+    }
+
+    @Override
+    public documents completeSession(User user, String sessionId) {
+        // A finalize that lost the race to another finds the session gone
+        UploadSession session = uploadSessionRepository.findByIdAndUser(sessionId, user)
+                .orElseThrow(() -> new UploadConflictException("Upload session already completed: " + sessionId));
+
+        long received = uploadChunkRepository.countReceived(sessionId);
+        if (received != session.getTotalChunks()) {
+            throw new IllegalStateException("Upload incomplete: received " + received + " of "
+                    + session.getTotalChunks() + " chunks");
+        }
+
+        // Claim the part file by renaming it to a name only this attempt knows.
+        // A concurrent finalize of the same session finds it gone and stops
+        // there, so it can never delete or move the file this one is using.
+        Path claimed = blobStore.getIncomingDir().resolve(sessionId + "." + UUID.randomUUID() + ".finalize");
+        try {
+            Files.move(partPath(sessionId), claimed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            throw new UploadConflictException("Upload session is already being completed: " + sessionId);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read uploaded chunks: " + e.getMessage(), e);
+        }
+
+        StoredFile stored;
+        try {
+            pdfValidator.checkStructure(claimed);
+            stored = streamingFileWriter.digest(claimed);
+        } catch (IOException e) {
+            release(claimed, sessionId);
+            throw new RuntimeException("Failed to read uploaded chunks: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            release(claimed, sessionId);
+            throw e;
+        }
+
+        // The document insert and the session removal commit together, so a
+        // retried or concurrent finalize cannot create a second document
+        try {
+            return fileService.saveStoredFile(user, session.getFileName(), stored, () -> {
+                uploadChunkRepository.deleteBySession(sessionId);
+                if (uploadSessionRepository.deleteSession(sessionId) == 0) {
+                    throw new UploadConflictException("Upload session already completed: " + sessionId);
+                }
+            });
+        } catch (UploadConflictException e) {
+            // The session was aborted or swept meanwhile; the claimed copy is ours alone
+            discard(claimed);
+            throw e;
+        } catch (RuntimeException e) {
+            // The bytes are back in the claimed file; hand them back so the client can retry
+            release(claimed, sessionId);
+            throw e;
+        }
+    }
+
+    @Override
+    public void abortSession(User user, String sessionId) {
+        getSession(user, sessionId);
+        removeSession(sessionId);
+    }
+
+    // Sweep sessions the client never finished so part files do not pile up
+    @Scheduled(fixedDelayString = "${app.upload.session-cleanup-interval:PT1H}")
+    public void removeExpiredSessions() {
+        Date cutoff = new Date(System.currentTimeMillis() - sessionTtl.toMillis());
+        for (UploadSession session : uploadSessionRepository.findAllByCreatedAtBefore(cutoff)) {
+            removeSession(session.getId());
+        }
+    }
+
+    private void removeSession(String sessionId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            uploadChunkRepository.deleteBySession(sessionId);
+            uploadSessionRepository.deleteSession(sessionId);
+        });
+        try {
+            Files.deleteIfExists(partPath(sessionId));
+        } catch (IOException e) {
+            // Leftovers in .incoming are harmless and can be swept later
+        }
+    }
+
+    // Puts a claimed part file back so the session can be finalized again
+    private void release(Path claimed, String sessionId) {
+        try {
+            Files.move(claimed, partPath(sessionId), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Without its part file the session cannot complete; drop it so the client starts over
+            discard(claimed);
+            removeSession(sessionId);
+        }
+    }
+
+    private void discard(Path claimed) {
+        try {
+            Files.deleteIfExists(claimed);
+        } catch (IOException e) {
+            // Leftovers in .incoming are harmless and can be swept later
+        }
+    }
+
+    private Path partPath(String sessionId) {
+        return blobStore.getIncomingDir().resolve(sessionId + ".upload");
+    }
+}
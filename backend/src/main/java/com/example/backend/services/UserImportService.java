@@ -0,0 +1,16 @@
+package com.example.backend.services;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface UserImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    // Reads users from the stream and writes one userImportResult line per row
+    // to out as each chunk commits; returns the number of accounts created
+    public long importUsers(InputStream in, Format format, OutputStream out) throws Exception;
+
+}
@@ -0,0 +1,345 @@
+package com.example.backend.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.config.ExecutorConfig;
+import com.example.backend.entities.User;
+import com.example.backend.response.userImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Bulk account creation for clinic onboarding. Rows are read as they arrive
+ * and handled a chunk at a time: passwords are hashed in parallel, then the
+ * chunk goes in as one JDBC batch whose ON DUPLICATE KEY UPDATE is a no-op.
+ *
+ * Ids come from the same Hibernate generator the User entity uses, so after
+ * the batch a single query for those ids tells which rows were inserted; a
+ * missing id means the email unique key matched an existing account. Unlike
+ * INSERT IGNORE this only forgives duplicates: a value the table rejects
+ * fails the batch, which is then retried row by row so only the bad row is
+ * reported, as invalid. Lengths are checked up front so that stays rare.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_USER = "INSERT INTO user "
+            + "(id, email, name, password, phone, city, country, state, pincode, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    // VARCHAR length of the user columns (JPA default)
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    // BCrypt only reads the first 72 bytes, and the encoder refuses longer input
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.IMPORT_HASH_EXECUTOR)
+    private Executor importHashExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.users.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.users.import.max-rows:50000}")
+    private int maxRows;
+
+    private static class PendingRow {
+        long row;
+        User user;
+        String error;
+        Long id;
+    }
+
+    @Override
+    public long importUsers(InputStream in, Format format, OutputStream out) throws Exception {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ObjectWriter writer = objectMapper.writerFor(userImportResult.class);
+
+        Map<String, Integer> columns = null;
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long row = 0;
+        long created = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            if (++row > maxRows) {
+                write(out, writer, new userImportResult(row, null, "invalid", null,
+                        "Import stopped: at most " + maxRows + " rows per request"));
+                break;
+            }
+
+            PendingRow pending = new PendingRow();
+            pending.row = row;
+            try {
+                pending.user = format == Format.CSV ? fromCsv(line, columns) : objectMapper.readValue(line, User.class);
+                validate(pending.user);
+            } catch (JsonProcessingException e) {
+                pending.error = "Row is not valid JSON";
+            } catch (Exception e) {
+                pending.error = e.getMessage();
+            }
+            chunk.add(pending);
+
+            if (chunk.size() == chunkSize) {
+                created += flush(chunk, out, writer);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += flush(chunk, out, writer);
+        }
+        out.flush();
+        return created;
+    }
+
+    private long flush(List<PendingRow> chunk, OutputStream out, ObjectWriter writer) throws IOException {
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (pending.error == null) {
+                valid.add(pending);
+            }
+        }
+
+        // BCrypt dominates the cost of an import, so spread it over the cores
+        List<CompletableFuture<String>> hashes = new ArrayList<>(valid.size());
+        for (PendingRow pending : valid) {
+            String raw = pending.user.getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(raw), importHashExecutor));
+        }
+        for (int i = 0; i < valid.size(); i++) {
+            valid.get(i).user.setPassword(hashes.get(i).join());
+        }
+
+        Set<Long> inserted;
+        try {
+            inserted = valid.isEmpty() ? Set.of() : transactionTemplate.execute(status -> insert(valid));
+        } catch (DataAccessException e) {
+            inserted = insertOneByOne(valid);
+        }
+        if (!inserted.isEmpty()) {
+            // The rows went in over JDBC, past Hibernate, so a cached "no such email"
+            // from findByEmail would otherwise outlive the insert
+            entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class)
+                    .evictDefaultQueryRegion();
+        }
+
+        long created = 0;
+        for (PendingRow pending : chunk) {
+            userImportResult result;
+            if (pending.error != null) {
+                String email = pending.user != null ? pending.user.getEmail() : null;
+                result = new userImportResult(pending.row, email, "invalid", null, pending.error);
+            } else if (inserted.contains(pending.id)) {
+                result = new userImportResult(pending.row, pending.user.getEmail(), "created", pending.id, null);
+                created++;
+            } else {
+                result = new userImportResult(pending.row, pending.user.getEmail(), "duplicate", null,
+                        "User already exist");
+            }
+            write(out, writer, result);
+        }
+        out.flush();
+        return created;
+    }
+
+    // A row validation let through failed the batch; the rest of the chunk still goes in
+    private Set<Long> insertOneByOne(List<PendingRow> rows) {
+        Set<Long> inserted = new HashSet<>();
+        for (PendingRow pending : rows) {
+            try {
+                inserted.addAll(transactionTemplate.execute(status -> insert(List.of(pending))));
+            } catch (DataAccessException e) {
+                pending.error = "Row rejected by the database: " + e.getMostSpecificCause().getMessage();
+            }
+        }
+        return inserted;
+    }
+
+    private Set<Long> insert(List<PendingRow> rows) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(User.class).getGenerator();
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            pending.id = ((Number) generator.generate(session, pending.user)).longValue();
+            ids.add(pending.id);
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (statement, pending) -> {
+            User user = pending.user;
+            statement.setLong(1, pending.id);
+            statement.setString(2, user.getEmail());
+            statement.setString(3, user.getName());
+            statement.setString(4, user.getPassword());
+            statement.setString(5, user.getPhone());
+            statement.setString(6, user.getCity());
+            statement.setString(7, user.getCountry());
+            statement.setString(8, user.getState());
+            statement.setString(9, user.getPincode());
+            statement.setTimestamp(10, now);
+        });
+
+        // Batched upserts report no reliable per-row counts, so ask which ids landed
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM user WHERE id IN (:ids)", Map.of("ids", ids), Long.class));
+    }
+
+    private void validate(User user) {
+        if (user.getEmail() == null || user.getEmail().isBlank() || !user.getEmail().contains("@")) {
+            throw new IllegalArgumentException("A valid email is required");
+        }
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            throw new IllegalArgumentException("Password is required");
+        }
+        if (user.getPassword().getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            throw new IllegalArgumentException("Password must be at most " + MAX_PASSWORD_BYTES + " bytes");
+        }
+        user.setEmail(user.getEmail().trim());
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("email", user.getEmail());
+        values.put("name", user.getName());
+        values.put("phone", user.getPhone());
+        values.put("city", user.getCity());
+        values.put("country", user.getCountry());
+        values.put("state", user.getState());
+        values.put("pincode", user.getPincode());
+        values.forEach((column, value) -> {
+            if (value != null && value.length() > MAX_COLUMN_LENGTH) {
+                throw new IllegalArgumentException(
+                        column + " must be at most " + MAX_COLUMN_LENGTH + " characters");
+            }
+        });
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> names = parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new IllegalArgumentException("CSV header must name at least the email and password columns");
+        }
+        return columns;
+    }
+
+    private User fromCsv(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        User user = new User();
+        user.setEmail(column(values, columns, "email"));
+        user.setName(column(values, columns, "name"));
+        user.setPassword(column(values, columns, "password"));
+        user.setPhone(column(values, columns, "phone"));
+        user.setCity(column(values, columns, "city"));
+        user.setCountry(column(values, columns, "country"));
+        user.setState(column(values, columns, "state"));
+        user.setPincode(column(values, columns, "pincode"));
+        return user;
+    }
+
+    private String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 fields on a single line: commas, "quoted, fields" and "" escapes
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    private void write(OutputStream out, ObjectWriter writer, userImportResult result) throws IOException {
+        out.write(writer.writeValueAsBytes(result));
+        out.write('\n');
+    }
+}
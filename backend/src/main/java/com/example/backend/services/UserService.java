@@ -1,5 +1,6 @@
 package com.example.backend.services;
 
+import com.example.backend.config.UserPrincipal;
 import com.example.backend.entities.User;
 
 public interface UserService {
@@ -10,4 +11,8 @@ public interface UserService {
 
     public User findUserByJwt(String jwt) throws Exception;
 
+    public User findCurrentUser(UserPrincipal principal) throws Exception;
+
+    public User updateProfile(Long id, User changes) throws Exception;
+
 }
@@ -1,10 +1,16 @@
 package com.example.backend.services;
 
+import java.util.Date;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.config.CacheConfig;
+import com.example.backend.config.UserPrincipal;
 import com.example.backend.entities.User;
 import com.example.backend.config.jwtProvider;
 import com.example.backend.repositories.userRepository;
@@ -15,17 +21,23 @@ public class UserServiceImplementation implements UserService {
     @Autowired
     private userRepository userRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
     public User findUserByID(Long id) throws Exception {
-        Optional<User> user = userRepository.findById(id);
+        User cached = userCache().get(id, User.class);
+        if (cached != null) {
+            return copy(cached);
+        }
 
-        user.get().setPassword(null);
+        Optional<User> user = userRepository.findById(id);
 
         if (user.isEmpty()) {
-            throw new Exception("User not found");
+            throw new UsernameNotFoundException("User not found");
         }
 
-        return user.get();
+        return cache(user.get());
 
     }
 
@@ -35,7 +47,7 @@ public class UserServiceImplementation implements UserService {
         User user = userRepository.findByEmail(email);
 
         if (user == null) {
-            throw new UnsupportedOperationException("User not found");
+            throw new UsernameNotFoundException("User not found");
         }
 
         return user;
@@ -44,15 +56,58 @@ public class UserServiceImplementation implements UserService {
 
     @Override
     public User findUserByJwt(String jwt) throws Exception {
-        String email = jwtProvider.getEmailFromJwtToken(jwt);
-
-        User user = userRepository.findByEmail(email);
+        return findCurrentUser(jwtProvider.getPrincipalFromJwtToken(jwt));
+    }
 
-        if (user == null) {
-            throw new UnsupportedOperationException("User not found");
+    /**
+     * The signed-in user, served from cache. Throws UsernameNotFoundException
+     * (answered with 401) when the token outlived its account.
+     */
+    @Override
+    public User findCurrentUser(UserPrincipal principal) throws Exception {
+        if (principal == null) {
+            return null;
+        }
+        // jwtValidator only admits tokens with a jti, and every such token carries the uid claim
+        if (principal.getId() == null) {
+            throw new UsernameNotFoundException("Token carries no user id");
         }
+        return findUserByID(principal.getId());
+    }
 
-        return user;
+    @Override
+    public User updateProfile(Long id, User changes) throws Exception {
+        User user = userRepository.findById(id).orElseThrow(() -> new Exception("User not found"));
+
+        user.setName(changes.getName());
+        user.setPhone(changes.getPhone());
+        user.setCity(changes.getCity());
+        user.setState(changes.getState());
+        user.setCountry(changes.getCountry());
+        user.setPincode(changes.getPincode());
+
+        User saved = userRepository.save(user);
+        userCache().evict(id);
+
+        return cache(saved);
+    }
+
+    // Cached users are shared between requests, so store a detached copy without
+    // the password hash and hand every caller a copy of its own to change
+    private User cache(User user) {
+        User cached = copy(user);
+        userCache().put(cached.getId(), cached);
+        return copy(cached);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getEmail(), user.getName(), null, user.getPhone(), user.getCity(),
+                user.getCountry(), user.getState(), user.getPincode(),
+                user.getCreatedAt() != null ? new Date(user.getCreatedAt().getTime()) : null);
+    }
+
+    private Cache userCache() {
+        return cacheManager.getCache(CacheConfig.USER_CACHE);
     }
 
 }
@@ -1,20 +1,59 @@
 package com.example.backend.services;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.backend.entities.User;
 import com.example.backend.entities.documents;
+import com.example.backend.response.batchUploadResult;
+import com.example.backend.response.bulkDeleteResponse;
+import com.example.backend.response.documentPage;
+import com.example.backend.response.documentStatus;
+import com.example.backend.response.searchHit;
+import com.example.backend.storage.DocumentFile;
+import com.example.backend.storage.StoredFile;
 
 public interface fileService {
 
     public documents uploadFile(User user,MultipartFile file);
 
+    public documents uploadFileStream(User user, String fileName, InputStream in);
+
+    public List<batchUploadResult> uploadFiles(User user, List<MultipartFile> files);
+
+    // Records an already streamed file; inTransaction runs in the same transaction as the insert.
+    // On failure the bytes are back at the stored file's path and still belong to the caller
+    public documents saveStoredFile(User user, String fileName, StoredFile stored, Runnable inTransaction);
+
     public documents getFile(User user,Long id);
 
-    public List<documents> getAllFiles(User user);
+    // Owner-checked metadata and file location for a download; null when the
+    // document or its file does not exist. Served from cache after the first call
+    public DocumentFile getDocumentFile(User user, Long id);
+
+    public Path resolvePath(documents document);
+
+    // Marks the downloaded content as recently read, keeping it out of the cold
+    // tier; repeated reads of a compressed blob bring it back to the hot tier
+    public void recordAccess(DocumentFile file);
+
+    // Post-processing progress of one of the user's documents; null when it does not exist
+    public documentStatus getDocumentStatus(User user, Long id);
+
+    public documentPage getDocumentPage(User user, String cursor, int limit);
+
+    // Writes every document row for the user as newline-delimited JSON
+    public long exportDocuments(User user, OutputStream out);
+
+    // Ranked full-text matches over the user's documents, with snippets
+    public List<searchHit> searchDocuments(User user, String query, int limit);
 
     public String deleteFile(User user, Long id);
 
+    public bulkDeleteResponse deleteFiles(User user, List<Long> ids);
+
 }
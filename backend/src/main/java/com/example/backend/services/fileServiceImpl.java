@@ -1,29 +1,128 @@
 package com.example.backend.services;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.backend.config.ExecutorConfig;
 import com.example.backend.entities.User;
+import com.example.backend.entities.DocumentJob;
 import com.example.backend.entities.documents;
+import com.example.backend.errors.QuotaExceededException;
+import com.example.backend.jobs.JobQueue;
 import com.example.backend.repositories.fileRepository;
+import com.example.backend.response.batchUploadResult;
+import com.example.backend.response.bulkDeleteResponse;
+import com.example.backend.response.documentExport;
+import com.example.backend.response.documentPage;
+import com.example.backend.response.documentStatus;
+import com.example.backend.response.documentSummary;
+import com.example.backend.response.jobStatus;
+import com.example.backend.response.searchHit;
+import com.example.backend.search.DocumentIndex;
+import com.example.backend.search.DocumentIndexer;
+import com.example.backend.storage.BlobStore;
+import com.example.backend.storage.ColdStorageTiering;
+import com.example.backend.storage.DocumentFile;
+import com.example.backend.storage.DocumentFileCache;
+import com.example.backend.storage.PdfValidator;
+import com.example.backend.storage.StorageMetrics;
+import com.example.backend.storage.StorageQuota;
+import com.example.backend.storage.StoredFile;
+import com.example.backend.storage.StreamingFileWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+import io.micrometer.core.annotation.Timed;
+
+// One timer per operation: documents.service{method=...}
+@Timed(value = "documents.service", percentiles = { 0.5, 0.95, 0.99 })
 @Service
 public class fileServiceImpl implements fileService {
 
     @Autowired
     private fileRepository fileRepository;
 
-    // Use "uploads" not "uploads/" to avoid double slashes
-    private static final String UPLOAD_DIR = "uploads";
+    @Autowired
+    private StreamingFileWriter streamingFileWriter;
+
+    @Autowired
+    private PdfValidator pdfValidator;
+
+    @Autowired
+    private DocumentFileCache documentFileCache;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ColdStorageTiering coldStorageTiering;
+
+    @Autowired
+    private StorageMetrics storageMetrics;
+
+    @Autowired
+    private DocumentIndex documentIndex;
+
+    @Autowired
+    private DocumentIndexer documentIndexer;
+
+    @Autowired
+    private JobQueue jobQueue;
+
+    @Autowired
+    private StorageQuota storageQuota;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.UPLOAD_EXECUTOR)
+    private Executor uploadExecutor;
+
+    @Value("${app.upload.batch.max-files:100}")
+    private int maxBatchFiles;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final int MAX_BULK_DELETE = 1000;
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
 
     @Override
     public documents uploadFile(User user, MultipartFile file) {
@@ -33,27 +132,318 @@ public class fileServiceImpl implements fileService {
         if (!file.getOriginalFilename().toLowerCase().endsWith(".pdf")) {
             throw new IllegalArgumentException("Only PDF files are allowed");
         }
+        try (InputStream in = file.getInputStream()) {
+            return storeUpload(user, file.getOriginalFilename(), in);
+        } catch (IllegalArgumentException | QuotaExceededException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Unexpected error during file upload: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public documents uploadFileStream(User user, String fileName, InputStream in) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        if (!fileName.toLowerCase().endsWith(".pdf")) {
+            throw new IllegalArgumentException("Only PDF files are allowed");
+        }
         try {
-            Path uploadPath = Paths.get(System.getProperty("user.dir"), UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            return storeUpload(user, fileName, in);
+        } catch (IllegalArgumentException | QuotaExceededException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Unexpected error during file upload: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<batchUploadResult> uploadFiles(User user, List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files uploaded");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxBatchFiles + " files");
+        }
+
+        List<batchUploadResult> results = new ArrayList<>(files.size());
+        List<CompletableFuture<StoredFile>> writes = new ArrayList<>(files.size());
+
+        // Stream every valid file to disk in parallel
+        for (MultipartFile file : files) {
+            String name = file.getOriginalFilename();
+            batchUploadResult result = new batchUploadResult(name, null, "failed", null);
+            results.add(result);
+
+            if (file.isEmpty()) {
+                result.setMessage("File is empty");
+                writes.add(null);
+            } else if (name == null || !name.toLowerCase().endsWith(".pdf")) {
+                result.setMessage("Only PDF files are allowed");
+                writes.add(null);
+            } else {
+                writes.add(CompletableFuture.supplyAsync(() -> {
+                    try (InputStream in = file.getInputStream()) {
+                        return writePdf(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, uploadExecutor));
+            }
+        }
+
+        List<batchUploadResult> storedResults = new ArrayList<>();
+        List<StoredFile> stored = new ArrayList<>();
+        for (int i = 0; i < writes.size(); i++) {
+            if (writes.get(i) == null) {
+                continue;
+            }
+            try {
+                stored.add(writes.get(i).join());
+                storedResults.add(results.get(i));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                results.get(i).setMessage(cause instanceof IllegalArgumentException ? cause.getMessage()
+                        : "Failed to write file: " + cause.getMessage());
+            }
+        }
+        if (stored.isEmpty()) {
+            return results;
+        }
+
+        // Everything goes to its content address before the metadata commits,
+        // so a document never points at a file that failed to move
+        List<StoredFile> placed = new ArrayList<>(stored.size());
+        try {
+            for (StoredFile file : stored) {
+                blobStore.place(file);
+                placed.add(file);
             }
+        } catch (IOException e) {
+            unplaceAll(placed);
+            stored.forEach(blobStore::discard);
+            storedResults.forEach(result -> result.setMessage("Failed to move file into place: " + e.getMessage()));
+            return results;
+        }
 
-            Path filePath = uploadPath.resolve(file.getOriginalFilename());
-            file.transferTo(filePath.toFile());
+        // One transaction for all metadata: blob references go out as one JDBC
+        // batch and the documents inserts are batched by Hibernate
+        List<documents> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                // The whole batch fits in the quota or none of it is kept
+                storageQuota.reserve(user.getId(), stored.stream().mapToLong(StoredFile::getSize).sum(),
+                        stored.size());
+                blobStore.retainAll(stored);
 
-            // Save file details to database
-            documents fileDetail = new documents();
-            fileDetail.setFileName(file.getOriginalFilename());
-            fileDetail.setUploadDate(new Date());
-            fileDetail.setFileSize(file.getSize());
-            fileDetail.setUser(user); // Associate the file with the use
-            return fileRepository.save(fileDetail);
+                List<documents> details = new ArrayList<>(stored.size());
+                Date uploadDate = new Date();
+                for (int i = 0; i < stored.size(); i++) {
+                    documents fileDetail = new documents();
+                    fileDetail.setFileName(Paths.get(storedResults.get(i).getFileName()).getFileName().toString());
+                    fileDetail.setUploadDate(uploadDate);
+                    fileDetail.setFileSize(stored.get(i).getSize());
+                    fileDetail.setBlobHash(stored.get(i).getSha256());
+                    fileDetail.setUser(user);
+                    details.add(fileDetail);
+                }
+                List<documents> result = fileRepository.saveAll(details);
+                jobQueue.enqueueUploads(result);
+                return result;
+            });
+        } catch (QuotaExceededException e) {
+            unplaceAll(placed);
+            stored.forEach(blobStore::discard);
+            storedResults.forEach(result -> result.setMessage(e.getMessage()));
+            return results;
+        } catch (RuntimeException e) {
+            unplaceAll(placed);
+            stored.forEach(blobStore::discard);
+            storedResults.forEach(result -> result.setMessage("Failed to save file details: " + e.getMessage()));
+            return results;
+        }
 
+        for (int i = 0; i < stored.size(); i++) {
+            blobStore.unpin(stored.get(i).getSha256());
+            blobStore.discard(stored.get(i));
+            storageMetrics.recordUpload(stored.get(i).getSize());
+
+            batchUploadResult result = storedResults.get(i);
+            result.setId(saved.get(i).getId());
+            result.setFileName(saved.get(i).getFileName());
+            result.setStatus("uploaded");
+            result.setMessage("File uploaded successfully");
+        }
+        return results;
+    }
+
+    // Releases what a failed batch placed; the incoming copies are discarded afterwards
+    private void unplaceAll(List<StoredFile> placed) {
+        for (StoredFile file : placed) {
+            try {
+                blobStore.unplace(file);
+            } catch (IOException e) {
+                // The batch is dropped anyway; just make sure no orphan stays behind
+                try {
+                    blobStore.deleteIfUnreferenced(file.getSha256());
+                } catch (IOException ignored) {
+                    // At worst an unreferenced file stays on disk; nothing points at it
+                }
+            }
+        }
+    }
+
+    private documents storeUpload(User user, String originalName, InputStream in) throws IOException {
+        // The name is display-only now, but keep just the last path segment
+        String fileName = Paths.get(originalName).getFileName().toString();
+
+        StoredFile stored = writePdf(in);
+        try {
+            return saveDocument(user, fileName, stored, null);
+        } catch (IOException | RuntimeException e) {
+            blobStore.discard(stored);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams an upload into .incoming, rejecting it at the first buffer when
+     * the header is not a PDF and, once written, when the trailer is not.
+     */
+    private StoredFile writePdf(InputStream in) throws IOException {
+        StoredFile stored = streamingFileWriter.write(in, blobStore.getIncomingDir(), pdfValidator.newHeaderScan());
+
+        if (stored.getSize() == 0) {
+            blobStore.discard(stored);
+            throw new IllegalArgumentException("No file uploaded or file is empty");
+        }
+        try {
+            pdfValidator.checkStructure(stored.getPath());
+        } catch (IOException | RuntimeException e) {
+            blobStore.discard(stored);
+            throw e;
+        }
+        return stored;
+    }
+
+    @Override
+    public documents saveStoredFile(User user, String fileName, StoredFile stored, Runnable inTransaction) {
+        try {
+            return saveDocument(user, fileName, stored, inTransaction);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file: " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new RuntimeException("Unexpected error during file upload: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to store file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves the streamed bytes to their content address, then records the
+     * document, its blob reference and its post-processing jobs in one
+     * transaction. If that transaction fails the bytes are moved back to the
+     * stored file's path, where the caller still owns them.
+     */
+    private documents saveDocument(User user, String fileName, StoredFile stored, Runnable inTransaction)
+            throws IOException {
+        blobStore.place(stored);
+        documents saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                storageQuota.reserve(user.getId(), stored.getSize(), 1);
+                blobStore.retain(stored.getSha256(), stored.getSize());
+
+                // Save file details to database
+                documents fileDetail = new documents();
+                fileDetail.setFileName(fileName);
+                fileDetail.setUploadDate(new Date());
+                fileDetail.setFileSize(stored.getSize());
+                fileDetail.setBlobHash(stored.getSha256());
+                fileDetail.setUser(user); // Associate the file with the use
+                documents result = fileRepository.save(fileDetail);
+                jobQueue.enqueueUploads(List.of(result));
+
+                if (inTransaction != null) {
+                    inTransaction.run();
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // The rollback already undid the quota, the reference and the row
+            try {
+                blobStore.unplace(stored);
+            } catch (IOException restore) {
+                e.addSuppressed(restore);
+            }
+            throw e;
+        }
+
+        blobStore.unpin(stored.getSha256());
+        // Left behind only when the content was already in the cold tier
+        blobStore.discard(stored);
+        storageMetrics.recordUpload(stored.getSize());
+        return saved;
+    }
+
+    @Override
+    public Path resolvePath(documents document) {
+        return blobStore.resolve(document);
+    }
+
+    @Override
+    public void recordAccess(DocumentFile file) {
+        String hash = file.document().getBlobHash();
+        if (hash == null) {
+            return;
+        }
+        blobStore.recordAccess(hash);
+        if (BlobStore.isCompressed(file.path())) {
+            coldStorageTiering.recordColdRead(hash);
+        }
+    }
+
+    @Override
+    public DocumentFile getDocumentFile(User user, Long id) {
+        DocumentFile cached = documentFileCache.get(user.getId(), id);
+        if (cached != null) {
+            // The one stat of a cached download; a moved or changed file (e.g.
+            // compressed into the cold tier) falls through to a fresh lookup
+            BasicFileAttributes attributes = stat(cached.path());
+            if (attributes != null && attributes.size() == cached.size()
+                    && attributes.lastModifiedTime().toMillis() == cached.lastModified()) {
+                return cached;
+            }
+            documentFileCache.invalidate(user.getId(), List.of(id));
+        }
+
+        Optional<documents> found = fileRepository.findByIdAndUser(id, user);
+        if (found.isEmpty()) {
+            return null;
+        }
+        documents row = found.get();
+        documents document = new documents(row.getId(), row.getFileName(), row.getUploadDate(), row.getFileSize(),
+                row.getBlobHash(), null);
+
+        Path path = blobStore.resolve(document);
+        BasicFileAttributes attributes = stat(path);
+        if (attributes == null) {
+            return null;
+        }
+        DocumentFile file = new DocumentFile(document, path, attributes.size(),
+                attributes.lastModifiedTime().toMillis());
+        documentFileCache.put(user.getId(), file);
+        return file;
+    }
+
+    private BasicFileAttributes stat(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -66,8 +456,7 @@ public class fileServiceImpl implements fileService {
                 throw new RuntimeException("No file detail found in database for id: " + id);
             }
 
-            String fileName = fiDetails.get().getFileName();
-            Path filePath = Paths.get(System.getProperty("user.dir"), UPLOAD_DIR, fileName);
+            Path filePath = blobStore.resolve(fiDetails.get());
 
             if (!Files.exists(filePath)) {
                 throw new RuntimeException("File not found on disk: " + filePath.toAbsolutePath());
@@ -82,44 +471,166 @@ public class fileServiceImpl implements fileService {
     }
 
     @Override
-    public List<documents> getAllFiles(User user) {
+    public documentStatus getDocumentStatus(User user, Long id) {
+        documents document = fileRepository.findByIdAndUser(id, user).orElse(null);
+        if (document == null) {
+            return null;
+        }
+
+        List<jobStatus> jobs = new ArrayList<>();
+        boolean failed = false;
+        boolean done = true;
+        for (DocumentJob job : jobQueue.findForDocument(id)) {
+            jobs.add(new jobStatus(job.getType().name(), job.getStatus().name(), job.getAttempts(),
+                    job.getLastError(), job.getUpdatedAt()));
+            failed |= job.getStatus() == DocumentJob.Status.FAILED;
+            done &= job.getStatus() == DocumentJob.Status.DONE;
+        }
+        // Documents uploaded before the job queue, or whose finished jobs were pruned,
+        // have no jobs and count as ready
+        String status = failed ? "failed" : done ? "ready" : "processing";
+        return new documentStatus(document.getId(), document.getFileName(), status, jobs);
+    }
+
+    @Override
+    public documentPage getDocumentPage(User user, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<documentSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = fileRepository.findFirstPage(user.getId(), fetch);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = fileRepository.findPageAfter(user.getId(), new Date(Long.parseLong(position[0])),
+                    Long.parseLong(position[1]), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new documentPage(rows, null);
+        }
+        List<documentSummary> page = rows.subList(0, pageSize);
+        documentSummary last = page.get(pageSize - 1);
+        return new documentPage(page, encodeCursor(last.getUploadDate().getTime(), last.getId()));
+    }
+
+    @Override
+    public long exportDocuments(User user, OutputStream out) {
+        ObjectWriter writer = objectMapper.writerFor(documentExport.class);
+
+        Long written = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<documentExport> rows = fileRepository.streamAllByUserId(user.getId())) {
+                Iterator<documentExport> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                    if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to export documents: " + e.getMessage(), e);
+            }
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+
+    @Override
+    public List<searchHit> searchDocuments(User user, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
         try {
+            return documentIndex.search(user.getId(), query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to search documents: " + e.getMessage(), e);
+        }
+    }
 
-            List<documents> files = fileRepository.findAllByUser(user);
+    private String encodeCursor(long uploadDate, long id) {
+        String position = uploadDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
 
-            if (files.isEmpty()) {
-                throw new RuntimeException("No files found for user: " + user.getEmail());
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = position.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
-            files.forEach(file -> {
-                User userTemp = file.getUser();
-                userTemp.setPassword(null); // Ensure password is not exposed
-            });
-            return files;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to retrieve file list: " + e.getMessage(), e);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
         }
     }
 
     @Override
     public String deleteFile(User user, Long id) {
         try {
-            Optional<documents> fileDetailsOpt = fileRepository.findByIdAndUser(id, user);
-            if (!fileDetailsOpt.isPresent()) {
+            bulkDeleteResponse result = deleteFiles(user, List.of(id));
+            if (result.getDeleted() == 0) {
                 throw new RuntimeException("File not found with id: " + id);
             }
 
-            String fileName = fileDetailsOpt.get().getFileName();
-            Path filePath = Paths.get(System.getProperty("user.dir"), UPLOAD_DIR, fileName);
+            return "File deleted successfully";
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to delete file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public bulkDeleteResponse deleteFiles(User user, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No ids given");
+        }
+        if (ids.size() > MAX_BULK_DELETE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DELETE + " ids can be deleted at once");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
 
-            fileRepository.deleteById(id);
+        // Metadata goes in one set-based delete; the files themselves are
+        // tombstoned in the same transaction and removed by BlobReclaimer
+        Set<Long> deleted = transactionTemplate.execute(status -> {
+            List<fileRepository.DocumentRef> refs = fileRepository.findRefs(user.getId(), requested);
+            if (refs.isEmpty()) {
+                return Set.<Long>of();
+            }
 
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
+            Set<Long> found = new HashSet<>();
+            long freedBytes = 0;
+            Map<String, Integer> released = new HashMap<>();
+            List<String> legacyFiles = new ArrayList<>();
+            for (fileRepository.DocumentRef ref : refs) {
+                found.add(ref.getId());
+                freedBytes += ref.getFileSize() != null ? ref.getFileSize() : 0;
+                if (ref.getBlobHash() != null) {
+                    released.merge(ref.getBlobHash(), 1, Integer::sum);
+                } else {
+                    legacyFiles.add(ref.getFileName());
+                }
             }
 
-            return "File deleted successfully";
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to delete file: " + e.getMessage(), e);
+            fileRepository.deleteAllByUserIdAndIdIn(user.getId(), found);
+            jobQueue.deleteForDocuments(found);
+            storageQuota.release(user.getId(), freedBytes, found.size());
+            blobStore.releaseAll(released);
+            if (!legacyFiles.isEmpty()) {
+                blobStore.tombstoneLegacy(legacyFiles);
+            }
+            return found;
+        });
+
+        if (!deleted.isEmpty()) {
+            documentFileCache.invalidate(user.getId(), deleted);
+            documentIndexer.removeAsync(user.getId(), deleted);
         }
+
+        List<Long> notFound = requested.stream().filter(id -> !deleted.contains(id)).toList();
+        return new bulkDeleteResponse(deleted.size(), notFound);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.example.backend.storage;
+
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.entities.BlobTombstone;
+import com.example.backend.repositories.blobTombstoneRepository;
+
+/**
+ * Deletes files recorded in blob_tombstones: unreferenced blobs, legacy flat
+ * files, and the raw or compressed form a blob leaves behind when it changes
+ * tier. Runs off the request path; a failed delete stays queued and is
+ * retried with exponential backoff.
+ */
+@Component
+public class BlobReclaimer {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobReclaimer.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final long MAX_BACKOFF_MILLIS = 6 * 60 * 60 * 1000L;
+
+    @Autowired
+    private blobTombstoneRepository blobTombstoneRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Scheduled(fixedDelayString = "${app.storage.reclaim-interval:PT30S}")
+    public void reclaim() {
+        List<BlobTombstone> due = blobTombstoneRepository.findDue(new Date(), Limit.of(BATCH_SIZE));
+
+        for (BlobTombstone tombstone : due) {
+            try {
+                if (tombstone.getHash() != null && tombstone.getPath() != null) {
+                    // The form a blob left behind when it changed tier
+                    blobStore.deleteSuperseded(tombstone.getHash(), tombstone.getPath());
+                } else if (tombstone.getHash() != null) {
+                    // Skips the file if an identical upload re-created the blob meanwhile
+                    blobStore.deleteIfUnreferenced(tombstone.getHash());
+                } else {
+                    Files.deleteIfExists(blobStore.getRoot().resolve(tombstone.getPath()));
+                }
+                blobTombstoneRepository.delete(tombstone);
+            } catch (Exception e) {
+                int attempts = tombstone.getAttempts() == null ? 1 : tombstone.getAttempts() + 1;
+                long backoff = Math.min(MAX_BACKOFF_MILLIS, 1000L << Math.min(attempts, 20));
+                tombstone.setAttempts(attempts);
+                tombstone.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff));
+                String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                tombstone.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+                blobTombstoneRepository.save(tombstone);
+                log.warn("Failed to reclaim {} (attempt {}): {}",
+                        tombstone.getHash() != null ? tombstone.getHash() : tombstone.getPath(), attempts,
+                        e.getMessage());
+            }
+        }
+    }
+}
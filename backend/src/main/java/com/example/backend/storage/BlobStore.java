@@ -0,0 +1,449 @@
+package com.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.entities.documents;
+import com.example.backend.repositories.blobRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Content-addressed storage for uploaded files. Each body is stored once under
+ * {@code uploads/blobs/ab/cd/<sha256>}, so directories stay small no matter
+ * how many files exist, and identical uploads share a single blob whose
+ * reference count lives in the {@code blobs} table.
+ *
+ * Reference counts change inside the caller's transaction; files are moved
+ * into place just before that transaction and pinned until it ends, and
+ * deleted later by {@link BlobReclaimer}. A striped lock per hash keeps
+ * "place file" and "delete unreferenced file" from interleaving.
+ *
+ * Cold blobs (see {@link ColdStorageTiering}) may be stored gzip-compressed
+ * as {@code <sha256>.gz} instead; which form is on disk is decided by the
+ * file system, so readers never depend on the tier column being up to date.
+ */
+@Component
+public class BlobStore {
+
+    private static final String UPLOAD_DIR = "uploads";
+
+    private static final String BLOB_DIR = "blobs";
+
+    private static final String INCOMING_DIR = ".incoming";
+
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    // Downloads move last_accessed forward at most once per day per blob
+    private static final long ACCESS_RESOLUTION_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    // Blobs placed by uploads whose reference has not committed yet, with how
+    // many such uploads there are; changed only under the blob's stripe lock
+    private final Map<String, Integer> pins = new ConcurrentHashMap<>();
+
+    private final Cache<String, Boolean> recentlyAccessed = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMillis(ACCESS_RESOLUTION_MILLIS))
+            .build();
+
+    @Autowired
+    private blobRepository blobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // How long a blob's old form stays on disk after it changes tier
+    @Value("${app.storage.cold.delete-grace:PT10M}")
+    private Duration deleteGrace;
+
+    public BlobStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Path getRoot() {
+        return Paths.get(System.getProperty("user.dir"), UPLOAD_DIR);
+    }
+
+    /** Directory partial uploads are written to before they are placed. */
+    public Path getIncomingDir() {
+        return getRoot().resolve(INCOMING_DIR);
+    }
+
+    public Path pathFor(String hash) {
+        return getRoot().resolve(BLOB_DIR)
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    /** Where the blob lives once moved to the compressed cold tier. */
+    public Path compressedPathFor(String hash) {
+        Path blob = pathFor(hash);
+        return blob.resolveSibling(blob.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    public static boolean isCompressed(Path file) {
+        return file.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+    }
+
+    /** Reads a compressed blob back as its original bytes. */
+    public static InputStream openDecompressed(Path file) throws IOException {
+        return new GZIPInputStream(Files.newInputStream(file), 64 * 1024);
+    }
+
+    /** First-page preview of a blob, kept beside it and deleted with it. */
+    public Path thumbnailPathFor(String hash) {
+        Path blob = pathFor(hash);
+        return blob.resolveSibling(blob.getFileName() + THUMBNAIL_SUFFIX);
+    }
+
+    /**
+     * Resolves where a document's bytes live. Documents uploaded before the
+     * blob store existed have no hash and still sit flat under uploads/.
+     */
+    public Path resolve(documents document) {
+        if (document.getBlobHash() == null) {
+            return getRoot().resolve(document.getFileName());
+        }
+        Path raw = pathFor(document.getBlobHash());
+        if (!Files.exists(raw)) {
+            Path compressed = compressedPathFor(document.getBlobHash());
+            if (Files.exists(compressed)) {
+                return compressed;
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * Notes that a blob was read, which keeps it out of the cold tier. Only
+     * the first read per blob per day on this instance reaches the database.
+     */
+    public void recordAccess(String hash) {
+        if (recentlyAccessed.asMap().putIfAbsent(hash, Boolean.TRUE) != null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        blobRepository.touch(hash, new Date(now), new Date(now - ACCESS_RESOLUTION_MILLIS));
+    }
+
+    /** Adds a reference to the blob. Must run inside the caller's transaction. */
+    public void retain(String hash, long size) {
+        blobRepository.retain(hash, size);
+    }
+
+    /**
+     * Adds one reference per file with a single JDBC batch. Must run inside the
+     * caller's transaction; the same hash may appear more than once.
+     */
+    public void retainAll(List<StoredFile> files) {
+        jdbcTemplate.batchUpdate("INSERT INTO blobs (hash, size, ref_count, created_at, tier, stored_size, "
+                + "last_accessed) VALUES (?, ?, 1, NOW(), 'HOT', ?, NOW()) "
+                + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, last_accessed = NOW()",
+                files, files.size(), (statement, file) -> {
+                    statement.setString(1, file.getSha256());
+                    statement.setLong(2, file.getSize());
+                    statement.setLong(3, file.getSize());
+                });
+    }
+
+    /**
+     * Drops references to blobs, {@code counts} mapping hash to how many
+     * documents stopped pointing at it. Blobs left unreferenced lose their row
+     * and get a tombstone for {@link BlobReclaimer}. Must run inside the
+     * caller's transaction so all of this commits with the metadata delete.
+     */
+    public void releaseAll(Map<String, Integer> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        jdbcTemplate.batchUpdate("UPDATE blobs SET ref_count = ref_count - ? WHERE hash = ?",
+                entries, entries.size(), (statement, entry) -> {
+                    statement.setInt(1, entry.getValue());
+                    statement.setString(2, entry.getKey());
+                });
+        blobRepository.tombstoneUnreferenced(counts.keySet());
+        blobRepository.deleteUnreferenced(counts.keySet());
+    }
+
+    /** Queues legacy flat files for removal. Must run inside the caller's transaction. */
+    public void tombstoneLegacy(List<String> fileNames) {
+        jdbcTemplate.batchUpdate("INSERT INTO blob_tombstones (path, created_at, attempts, next_attempt_at) "
+                + "VALUES (?, NOW(), 0, NOW())",
+                fileNames, fileNames.size(), (statement, fileName) -> statement.setString(1, fileName));
+    }
+
+    /**
+     * Moves a freshly streamed file to its content address, before its
+     * reference is committed: the path is the hash, so the move is idempotent
+     * and a failed commit leaves no document pointing at a missing file. The
+     * blob stays pinned, so {@link #deleteIfUnreferenced} leaves it alone,
+     * until the caller calls {@link #unpin} after committing or
+     * {@link #unplace} after rolling back.
+     *
+     * An identical blob may already be there, in which case the rename simply
+     * replaces it with the same bytes. When it is already there compressed,
+     * the streamed file is left where it is for the caller to discard.
+     */
+    public void place(StoredFile stored) throws IOException {
+        String hash = stored.getSha256();
+        Path target = pathFor(hash);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            pins.merge(hash, 1, Integer::sum);
+            try {
+                if (Files.exists(compressedPathFor(hash))) {
+                    // Same content is already on disk in the cold tier
+                    return;
+                }
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(stored.getPath(), target, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException | AccessDeniedException e) {
+                    // Some platforms refuse to replace a file that is open for reading;
+                    // the existing copy has identical content, so keep ours where it is
+                    if (!Files.exists(target)) {
+                        throw e;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                unpinLocked(hash);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Releases the pin {@link #place} took, once the blob's reference has committed. */
+    public void unpin(String hash) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            unpinLocked(hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Undoes {@link #place} after the reference failed to commit, putting the
+     * bytes back at the stored file's path so the caller can retry or discard
+     * them. The blob file is moved back when nothing else uses it and copied
+     * when a committed document or another pending upload does. Returns false
+     * when the bytes cannot be restored (the blob vanished meanwhile).
+     */
+    public boolean unplace(StoredFile stored) throws IOException {
+        String hash = stored.getSha256();
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            unpinLocked(hash);
+            if (Files.exists(stored.getPath())) {
+                return true; // never moved
+            }
+            Path target = pathFor(hash);
+            if (!Files.exists(target)) {
+                return false;
+            }
+            if (!pins.containsKey(hash) && !blobRepository.existsById(hash)) {
+                Files.move(target, stored.getPath(), StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.copy(target, stored.getPath());
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unpinLocked(String hash) {
+        pins.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Moves a rendered thumbnail into place. Returns false (and drops the
+     * file) when the blob has been reclaimed in the meantime, so a late render
+     * never leaves an orphaned preview behind.
+     */
+    public boolean placeThumbnail(String hash, Path rendered) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (!Files.exists(pathFor(hash)) && !Files.exists(compressedPathFor(hash))) {
+                Files.deleteIfExists(rendered);
+                return false;
+            }
+            Files.move(rendered, thumbnailPathFor(hash), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Swaps a blob's raw file for its compressed copy. Returns false (and
+     * drops the copy) when the raw file is gone, e.g. reclaimed meanwhile.
+     * The raw file is only retired: a download may have resolved it, or
+     * cached its path for sendfile, without opening it yet, so
+     * {@link BlobReclaimer} deletes it after app.storage.cold.delete-grace.
+     */
+    public boolean replaceWithCompressed(String hash, Path compressed) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path raw = pathFor(hash);
+            if (!Files.exists(raw)) {
+                Files.deleteIfExists(compressed);
+                return false;
+            }
+            retire(hash, raw, compressedPathFor(hash));
+            Files.move(compressed, compressedPathFor(hash), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The reverse of {@link #replaceWithCompressed}: moves a decompressed copy
+     * in as the raw file and retires the compressed one. Returns false (and
+     * drops the copy) when the compressed file is gone.
+     */
+    public boolean replaceWithRaw(String hash, Path decompressed) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path compressed = compressedPathFor(hash);
+            if (!Files.exists(compressed)) {
+                Files.deleteIfExists(decompressed);
+                return false;
+            }
+            retire(hash, compressed, pathFor(hash));
+            Files.move(decompressed, pathFor(hash), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes one form of a blob (raw or compressed, as a path under the
+     * root) that was retired when the blob changed tier, provided the other
+     * form is still there. Called by {@link BlobReclaimer} once the grace
+     * period is over.
+     */
+    public void deleteSuperseded(String hash, String relativePath) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Path file = getRoot().resolve(relativePath);
+            Path other = isCompressed(file) ? pathFor(hash) : compressedPathFor(hash);
+            if (Files.exists(other)) {
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Queued before the other form is moved in, so a failed move leaves only a
+    // tombstone that deleteSuperseded will skip. A blob that changes tier again
+    // within the grace period must keep the form it is moving to
+    private void retire(String hash, Path retired, Path kept) {
+        jdbcTemplate.update("DELETE FROM blob_tombstones WHERE hash = ? AND path = ?",
+                hash, getRoot().relativize(kept).toString());
+        jdbcTemplate.update("INSERT INTO blob_tombstones (hash, path, created_at, attempts, next_attempt_at) "
+                + "VALUES (?, ?, NOW(), 0, ?)",
+                hash, getRoot().relativize(retired).toString(),
+                new Date(System.currentTimeMillis() + deleteGrace.toMillis()));
+    }
+
+    /**
+     * Re-reads a placed blob, decompressing a cold one, and checks that its
+     * content still hashes to its name. Throws NoSuchFileException while the
+     * blob is not in place yet.
+     */
+    public void verify(String hash) throws IOException {
+        Path raw = pathFor(hash);
+        MessageDigest digest = StreamingFileWriter.sha256();
+        try (InputStream in = Files.exists(raw) ? Files.newInputStream(raw)
+                : openDecompressed(compressedPathFor(hash))) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equals(hash)) {
+            throw new IllegalStateException("Blob " + hash + " is corrupt; its content hashes to " + actual);
+        }
+    }
+
+    /**
+     * Deletes the blob file, and its thumbnail, if no row references it any
+     * more and no upload has it placed but not yet committed.
+     */
+    public void deleteIfUnreferenced(String hash) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (!pins.containsKey(hash) && !blobRepository.existsById(hash)) {
+                Files.deleteIfExists(pathFor(hash));
+                Files.deleteIfExists(compressedPathFor(hash));
+                Files.deleteIfExists(thumbnailPathFor(hash));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Removes a streamed file that will never be placed. */
+    public void discard(StoredFile stored) {
+        try {
+            Files.deleteIfExists(stored.getPath());
+        } catch (IOException e) {
+            // Leftovers in .incoming are harmless and can be swept later
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+}
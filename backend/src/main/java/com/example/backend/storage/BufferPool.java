@@ -0,0 +1,42 @@
+package com.example.backend.storage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Small pool of fixed-size direct buffers shared by the streaming I/O paths.
+ * Buffers live outside the heap, so concurrent uploads do not grow heap usage;
+ * at most {@code maxPooled} buffers are retained between requests.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+
+    private final ArrayBlockingQueue<ByteBuffer> pool;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize) {
+            return;
+        }
+        buffer.clear();
+        pool.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
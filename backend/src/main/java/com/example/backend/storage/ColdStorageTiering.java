@@ -0,0 +1,170 @@
+package com.example.backend.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.entities.Blob;
+import com.example.backend.repositories.blobRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Moves blobs nobody has downloaded for app.storage.cold.after into the cold
+ * tier. Each one is compressed into .incoming first, as block gzip (see
+ * {@link SeekableGzip}) so ranges can be served without inflating from the
+ * start, and only swapped in
+ * if that saves at least app.storage.cold.min-savings of its size; scans that
+ * barely compress are marked cold but kept raw so they are not retried.
+ * Downloads decompress cold blobs on the fly, so the API does not change.
+ *
+ * A compressed blob downloaded app.storage.cold.rehydrate-reads times within
+ * a day is decompressed back into the hot tier in the background.
+ */
+@Component
+public class ColdStorageTiering {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdStorageTiering.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private blobRepository blobRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${app.storage.cold.after:30d}")
+    private Duration coldAfter;
+
+    @Value("${app.storage.cold.min-savings:0.1}")
+    private double minSavings;
+
+    @Value("${app.storage.cold.rehydrate-reads:3}")
+    private int rehydrateReads;
+
+    // Reads of compressed blobs on this instance, counted from the first in a day
+    private final Cache<String, AtomicInteger> coldReads = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    private final Set<String> rehydrateRequested = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${app.storage.cold.interval:PT1H}",
+            initialDelayString = "${app.storage.cold.initial-delay:PT5M}")
+    public void demoteIdleBlobs() {
+        Date cutoff = new Date(System.currentTimeMillis() - coldAfter.toMillis());
+        List<Blob> candidates = blobRepository.findColdCandidates(cutoff, Limit.of(BATCH_SIZE));
+
+        long saved = 0;
+        for (Blob blob : candidates) {
+            try {
+                saved += demote(blob.getHash());
+            } catch (Exception e) {
+                log.warn("Failed to move blob {} to the cold tier: {}", blob.getHash(), e.getMessage());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            log.info("Cold tier: processed {} blobs, {} bytes saved", candidates.size(), saved);
+        }
+    }
+
+    /** Counts a download served from a compressed blob; enough of them bring it back to the hot tier. */
+    public void recordColdRead(String hash) {
+        if (coldReads.get(hash, key -> new AtomicInteger()).incrementAndGet() >= rehydrateReads) {
+            coldReads.invalidate(hash);
+            rehydrateRequested.add(hash);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.cold.rehydrate-interval:PT15S}")
+    public void rehydrateRequested() {
+        for (String hash : List.copyOf(rehydrateRequested)) {
+            rehydrateRequested.remove(hash);
+            try {
+                rehydrate(hash);
+            } catch (Exception e) {
+                log.warn("Failed to move blob {} back to the hot tier: {}", hash, e.getMessage());
+            }
+        }
+    }
+
+    void rehydrate(String hash) throws IOException {
+        Path compressed = blobStore.compressedPathFor(hash);
+        if (!Files.exists(compressed)) {
+            return; // deleted, or rehydrated already
+        }
+        Path incoming = blobStore.getIncomingDir();
+        Files.createDirectories(incoming);
+        Path raw = Files.createTempFile(incoming, "hot-", ".part");
+        try {
+            try (InputStream in = BlobStore.openDecompressed(compressed)) {
+                Files.copy(in, raw, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (blobStore.replaceWithRaw(hash, raw)) {
+                blobRepository.markHot(hash, new Date());
+                log.info("Moved blob {} back to the hot tier", hash);
+            }
+        } finally {
+            Files.deleteIfExists(raw);
+        }
+    }
+
+    // Returns the bytes of disk space freed
+    long demote(String hash) throws IOException {
+        Path raw = blobStore.pathFor(hash);
+        if (!Files.exists(raw)) {
+            Path compressed = blobStore.compressedPathFor(hash);
+            if (Files.exists(compressed)) {
+                // The swap happened but the row was not updated last time
+                blobRepository.markCold(hash, Files.size(compressed));
+            } else {
+                log.warn("Blob {} has no file on disk, leaving it in the hot tier", hash);
+            }
+            return 0;
+        }
+
+        long size = Files.size(raw);
+        Path incoming = blobStore.getIncomingDir();
+        Files.createDirectories(incoming);
+        Path compressed = Files.createTempFile(incoming, "cold-", ".gz");
+        try {
+            try (InputStream in = Files.newInputStream(raw);
+                    OutputStream out = new BufferedOutputStream(Files.newOutputStream(compressed), 64 * 1024)) {
+                SeekableGzip.compress(in, out);
+            }
+            long storedSize = Files.size(compressed);
+
+            if (storedSize > size * (1 - minSavings)) {
+                blobRepository.markCold(hash, size);
+                return 0;
+            }
+            if (!blobStore.replaceWithCompressed(hash, compressed)) {
+                return 0;
+            }
+            blobRepository.markCold(hash, storedSize);
+            return size - storedSize;
+        } finally {
+            Files.deleteIfExists(compressed);
+        }
+    }
+}
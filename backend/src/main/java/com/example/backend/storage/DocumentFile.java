@@ -0,0 +1,13 @@
+package com.example.backend.storage;
+
+import java.nio.file.Path;
+
+import com.example.backend.entities.documents;
+
+/**
+ * A document's metadata together with where its bytes are and the size and
+ * modification time last seen there. {@code document} is a detached copy
+ * without its user, safe to share between threads and requests.
+ */
+public record DocumentFile(documents document, Path path, long size, long lastModified) {
+}
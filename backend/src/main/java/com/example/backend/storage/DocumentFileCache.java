@@ -0,0 +1,62 @@
+package com.example.backend.storage;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Download metadata keyed by (user id, document id), so a repeat download
+ * skips the owner check query. Entries are dropped when the document is
+ * deleted; the time limit bounds how long another instance can keep serving
+ * a document deleted elsewhere. Only found documents are cached, so a new
+ * upload never has a stale entry to replace.
+ */
+@Component
+public class DocumentFileCache {
+
+    private record Key(Long userId, Long documentId) {
+    }
+
+    private final Cache<Key, DocumentFile> cache;
+
+    @Autowired
+    public DocumentFileCache(
+            @Value("${app.documents.metadata-cache.max-size:10000}") long maxSize,
+            @Value("${app.documents.metadata-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this(maxSize, ttl, meterRegistry, Ticker.systemTicker());
+    }
+
+    // The ticker lets tests expire entries without waiting
+    DocumentFileCache(long maxSize, Duration ttl, MeterRegistry meterRegistry, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "documentFiles");
+    }
+
+    public DocumentFile get(Long userId, Long documentId) {
+        return cache.getIfPresent(new Key(userId, documentId));
+    }
+
+    public void put(Long userId, DocumentFile file) {
+        cache.put(new Key(userId, file.document().getId()), file);
+    }
+
+    public void invalidate(Long userId, Collection<Long> documentIds) {
+        cache.invalidateAll(documentIds.stream().map(id -> new Key(userId, id)).toList());
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.backend.entities.documents;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a stored file to the response with HTTP caching and range support:
+ * conditional GET (ETag / Last-Modified, answered with 304), If-Range, single
+ * ranges (206) and multi-range {@code multipart/byteranges}.
+ *
+ * Whole files and single ranges are handed to Tomcat's sendfile when the
+ * connector offers it, so the kernel copies the bytes straight to the socket.
+ * Otherwise bytes go out with {@link FileChannel#transferTo}, which never
+ * stages the file in the heap.
+ *
+ * Cold-tier blobs stored gzip-compressed are decompressed while streaming;
+ * ranges into them start inflating at the block holding the start offset.
+ */
+@Component
+public class FileDownloader {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this, a plain write is cheaper than setting up sendfile (same as Tomcat's DefaultServlet)
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    /** Returns the number of file bytes sent (or handed to sendfile); 0 for 304, 412, 416 and HEAD. */
+    public long serve(HttpServletRequest request, HttpServletResponse response, documents document, Path file)
+            throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return serve(request, response, new DocumentFile(document, file, attributes.size(),
+                attributes.lastModifiedTime().toMillis()));
+    }
+
+    /** As above, trusting the size and modification time already looked up for the file. */
+    public long serve(HttpServletRequest request, HttpServletResponse response, DocumentFile documentFile)
+            throws IOException {
+
+        documents document = documentFile.document();
+        Path file = documentFile.path();
+        boolean compressed = BlobStore.isCompressed(file);
+        long length = compressed ? document.getFileSize() : documentFile.size();
+        String etag = etagFor(document, documentFile);
+        long lastModified = document.getBlobHash() != null && document.getUploadDate() != null
+                ? document.getUploadDate().getTime()
+                : documentFile.lastModified();
+
+        // Sets ETag / Last-Modified and answers 304 or 412 when the validators say so
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return 0;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + document.getFileName() + "\"");
+
+        List<long[]> ranges;
+        try {
+            ranges = requestedRanges(request, etag, lastModified, length);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return 0;
+        }
+
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setContentLengthLong(length);
+            if (head) {
+                return 0;
+            }
+            sendRegion(request, response, file, compressed, 0, length);
+            return length;
+        } else if (ranges.size() == 1) {
+            long start = ranges.get(0)[0];
+            long end = ranges.get(0)[1];
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (head) {
+                return 0;
+            }
+            sendRegion(request, response, file, compressed, start, end - start + 1);
+            return end - start + 1;
+        } else {
+            String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType("multipart/byteranges; boundary=" + boundary);
+            if (head) {
+                return 0;
+            }
+            return sendMultipart(response, file, compressed, ranges, length, boundary);
+        }
+    }
+
+    private String etagFor(documents document, DocumentFile file) {
+        if (document.getBlobHash() != null) {
+            // Content hash: a strong validator that never changes for this document
+            return "\"" + document.getBlobHash() + "\"";
+        }
+        return "W/\"" + Long.toHexString(file.size()) + "-" + Long.toHexString(file.lastModified()) + "\"";
+    }
+
+    /**
+     * Returns inclusive [start, end] pairs, or an empty list to send the whole
+     * file. A stale If-Range also yields the whole file, as RFC 9110 requires.
+     */
+    private List<long[]> requestedRanges(HttpServletRequest request, String etag, long lastModified, long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            return List.of();
+        }
+
+        List<HttpRange> httpRanges = HttpRange.parseRanges(rangeHeader);
+        List<long[]> ranges = new ArrayList<>(httpRanges.size());
+        long total = 0;
+        for (HttpRange range : httpRanges) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            if (start > end) {
+                throw new IllegalArgumentException("Unsatisfiable range");
+            }
+            total += end - start + 1;
+            ranges.add(new long[] { start, end });
+        }
+        // Overlapping multi-ranges that add up to more than the file are a DoS vector
+        if (ranges.size() > 1 && total > length) {
+            throw new IllegalArgumentException("Ranges exceed file size");
+        }
+        return ranges;
+    }
+
+    private boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Only a strong validator may be used with If-Range
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            return lastModified / 1000 == date / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private void sendRegion(HttpServletRequest request, HttpServletResponse response, Path file,
+            boolean compressed, long start, long count) throws IOException {
+
+        if (compressed) {
+            try (CompressedReader reader = new CompressedReader(file)) {
+                reader.copy(start, count, response.getOutputStream());
+            }
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat streams the file with sendfile once this handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            transfer(channel, start, count, out);
+        }
+    }
+
+    private long sendMultipart(HttpServletResponse response, Path file, boolean compressed, List<long[]> ranges,
+            long length, String boundary) throws IOException {
+
+        OutputStream outputStream = response.getOutputStream();
+        WritableByteChannel out = Channels.newChannel(outputStream);
+        long sent = 0;
+
+        try (FileChannel channel = compressed ? null : FileChannel.open(file, StandardOpenOption.READ);
+                CompressedReader reader = compressed ? new CompressedReader(file) : null) {
+            for (long[] range : ranges) {
+                String partHeader = "\r\n--" + boundary + "\r\n"
+                        + HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_PDF_VALUE + "\r\n"
+                        + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length
+                        + "\r\n\r\n";
+                outputStream.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                if (compressed) {
+                    reader.copy(range[0], range[1] - range[0] + 1, outputStream);
+                } else {
+                    transfer(channel, range[0], range[1] - range[0] + 1, out);
+                }
+                sent += range[1] - range[0] + 1;
+            }
+        }
+        outputStream.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return sent;
+    }
+
+    private void transfer(FileChannel channel, long position, long count, WritableByteChannel out)
+            throws IOException {
+        while (count > 0) {
+            long sent = channel.transferTo(position, count, out);
+            if (sent <= 0) {
+                throw new IOException("File ended before the requested range was sent");
+            }
+            position += sent;
+            count -= sent;
+        }
+    }
+
+    /**
+     * Sequential reader over a compressed blob. Ranges usually arrive in
+     * ascending order and reuse the stream; one that starts before the
+     * current position, or more than a block past it, reopens the file at
+     * the block holding its start.
+     */
+    private static final class CompressedReader implements AutoCloseable {
+
+        private final Path file;
+
+        private InputStream in;
+
+        private long position;
+
+        CompressedReader(Path file) {
+            this.file = file;
+        }
+
+        void copy(long start, long count, OutputStream out) throws IOException {
+            if (in == null || start < position || start - position > SeekableGzip.BLOCK_SIZE) {
+                close();
+                in = SeekableGzip.open(file, start);
+                position = start;
+            }
+            in.skipNBytes(start - position);
+            position = start;
+
+            byte[] buffer = new byte[64 * 1024];
+            while (count > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, count));
+                if (read < 0) {
+                    throw new IOException("File ended before the requested range was sent");
+                }
+                out.write(buffer, 0, read);
+                position += read;
+                count -= read;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+        }
+    }
+}
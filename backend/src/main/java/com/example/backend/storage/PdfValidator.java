@@ -0,0 +1,167 @@
+package com.example.backend.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Structural checks that turn away uploads which are not PDFs before they
+ * cost a full write or a parse.
+ *
+ * The header is checked on the upload stream itself: a {@link HeaderScan}
+ * sees each buffer before it is written and fails the transfer as soon as
+ * the first 1024 bytes contain no {@code %PDF-}. Once the body is on disk,
+ * {@link #checkStructure} maps only the last kilobyte of the file and the
+ * few bytes {@code startxref} points at; the rest is never read.
+ */
+@Component
+public class PdfValidator {
+
+    private static final byte[] MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] EOF_MARKER = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] STARTXREF = "startxref".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] XREF = "xref".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] OBJ = "obj".getBytes(StandardCharsets.US_ASCII);
+
+    // Readers accept the header anywhere in the first 1024 bytes, and %%EOF
+    // anywhere in the last 1024 (ISO 32000-1, Annex H)
+    static final int HEADER_WINDOW = 1024;
+
+    static final int TRAILER_WINDOW = 1024;
+
+    // Slack around the startxref target; many writers are off by a line ending
+    private static final int XREF_WINDOW = 64;
+
+    public HeaderScan newHeaderScan() {
+        return new HeaderScan();
+    }
+
+    /** Fed every buffer of an upload, in order, before it is written. */
+    public static final class HeaderScan {
+
+        private final byte[] head = new byte[HEADER_WINDOW];
+
+        private int length;
+
+        private boolean found;
+
+        HeaderScan() {
+        }
+
+        /** Inspects the buffer's remaining bytes without consuming them. */
+        public void update(ByteBuffer buffer) {
+            if (found) {
+                return;
+            }
+            int count = Math.min(buffer.remaining(), HEADER_WINDOW - length);
+            buffer.get(buffer.position(), head, length, count);
+            length += count;
+
+            if (indexOf(ByteBuffer.wrap(head, 0, length), MAGIC, 0) >= 0) {
+                found = true;
+            } else if (length == HEADER_WINDOW) {
+                throw notPdf("no %PDF- header");
+            }
+        }
+
+        /** Call at end of stream; fails a body too short to have shown a header. */
+        public void finish() {
+            if (!found) {
+                throw notPdf("no %PDF- header");
+            }
+        }
+    }
+
+    /** Checks %%EOF, startxref and that the offset it gives lands on a cross-reference section. */
+    public void checkStructure(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int tailLength = (int) Math.min(size, TRAILER_WINDOW);
+            MappedByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, size - tailLength, tailLength);
+
+            int eof = lastIndexOf(tail, EOF_MARKER, tailLength);
+            if (eof < 0) {
+                throw notPdf("no %%EOF marker");
+            }
+            int startxref = lastIndexOf(tail, STARTXREF, eof);
+            if (startxref < 0) {
+                throw notPdf("no startxref");
+            }
+
+            long offset = parseOffset(tail, startxref + STARTXREF.length, eof);
+            if (offset < 0 || offset >= size) {
+                throw notPdf("startxref points outside the file");
+            }
+
+            int windowLength = (int) Math.min(XREF_WINDOW, size - offset);
+            MappedByteBuffer target = channel.map(FileChannel.MapMode.READ_ONLY, offset, windowLength);
+            // A classic table starts with "xref", a cross-reference stream with "<n> <gen> obj"
+            if (indexOf(target, XREF, 0) < 0 && indexOf(target, OBJ, 0) < 0) {
+                throw notPdf("startxref does not point at a cross-reference section");
+            }
+        }
+    }
+
+    private static long parseOffset(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i < to && isWhitespace(buffer.get(i))) {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; i < to && buffer.get(i) >= '0' && buffer.get(i) <= '9'; i++) {
+            if (++digits > 18) {
+                return -1;
+            }
+            value = value * 10 + (buffer.get(i) - '0');
+        }
+        return digits == 0 ? -1 : value;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\r' || b == '\n' || b == '\t' || b == '\f' || b == 0;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte[] pattern, int from) {
+        int limit = buffer.limit() - pattern.length;
+        for (int i = from; i <= limit; i++) {
+            if (matchesAt(buffer, pattern, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Last match that starts before the given index
+    private static int lastIndexOf(ByteBuffer buffer, byte[] pattern, int before) {
+        for (int i = Math.min(before - 1, buffer.limit() - pattern.length); i >= 0; i--) {
+            if (matchesAt(buffer, pattern, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matchesAt(ByteBuffer buffer, byte[] pattern, int at) {
+        for (int j = 0; j < pattern.length; j++) {
+            if (buffer.get(at + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IllegalArgumentException notPdf(String reason) {
+        return new IllegalArgumentException("File is not a valid PDF: " + reason);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.backend.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Gzip written as a series of independently compressed blocks, so a read can
+ * start near any offset instead of inflating everything before it. Each block
+ * is a complete gzip member whose header carries its own compressed length in
+ * a "BS" extra field (as in BGZF), and concatenated members are still one
+ * valid gzip stream, so plain {@link GZIPInputStream} reads the whole file.
+ *
+ * Seeking walks the member headers: two small reads per block skipped, none
+ * of them inflated. Files written before this format (a single member without
+ * the extra field) still open, by inflating from the start.
+ */
+public final class SeekableGzip {
+
+    static final int BLOCK_SIZE = 256 * 1024;
+
+    // ID1 ID2 CM FLG MTIME(4) XFL OS, XLEN(2), SI1 SI2 SLEN(2) BSIZE(4)
+    private static final int HEADER_LENGTH = 20;
+
+    private static final int TRAILER_LENGTH = 8;
+
+    private static final int FEXTRA = 4;
+
+    private SeekableGzip() {
+    }
+
+    public static void compress(InputStream in, OutputStream out) throws IOException {
+        compress(in, out, BLOCK_SIZE);
+    }
+
+    static void compress(InputStream in, OutputStream out, int blockSize) throws IOException {
+        byte[] block = new byte[blockSize];
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream(blockSize);
+        byte[] buffer = new byte[64 * 1024];
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        CRC32 crc = new CRC32();
+        try {
+            boolean first = true;
+            int length;
+            // An empty input still gets one (empty) member, so the file is valid gzip
+            while ((length = in.readNBytes(block, 0, blockSize)) > 0 || first) {
+                first = false;
+                deflater.reset();
+                deflater.setInput(block, 0, length);
+                deflater.finish();
+                deflated.reset();
+                while (!deflater.finished()) {
+                    deflated.write(buffer, 0, deflater.deflate(buffer));
+                }
+                crc.reset();
+                crc.update(block, 0, length);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                header.put((byte) 0x1f).put((byte) 0x8b).put((byte) Deflater.DEFLATED).put((byte) FEXTRA)
+                        .putInt(0).put((byte) 0).put((byte) 0xff)
+                        .putShort((short) 8).put((byte) 'B').put((byte) 'S').putShort((short) 4)
+                        .putInt(HEADER_LENGTH + deflated.size() + TRAILER_LENGTH);
+                out.write(header.array());
+                deflated.writeTo(out);
+                ByteBuffer trailer = ByteBuffer.allocate(TRAILER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt(length);
+                out.write(trailer.array());
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** Opens a compressed file as its original bytes, starting at {@code offset}. */
+    public static InputStream open(Path file, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long position = 0;
+            long skip = offset;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (skip > 0 && position + HEADER_LENGTH <= size) {
+                readFully(channel, header.clear(), position);
+                if (!isBlockHeader(header)) {
+                    break; // not block-compressed: inflate from here
+                }
+                long blockLength = header.getInt(16) & 0xffffffffL;
+                readFully(channel, trailer.clear(), position + blockLength - 4);
+                long uncompressed = trailer.getInt(0) & 0xffffffffL;
+                if (uncompressed > skip) {
+                    break;
+                }
+                position += blockLength;
+                skip -= uncompressed;
+            }
+
+            if (position >= size) {
+                // Every block skipped: the offset is the end of the content, or past it
+                channel.close();
+                if (skip > 0) {
+                    throw new EOFException("Offset " + offset + " is past the end of the content");
+                }
+                return InputStream.nullInputStream();
+            }
+            InputStream in = new GZIPInputStream(Channels.newInputStream(channel.position(position)), 64 * 1024);
+            in.skipNBytes(skip);
+            return in;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isBlockHeader(ByteBuffer header) {
+        return (header.get(0) & 0xff) == 0x1f && (header.get(1) & 0xff) == 0x8b
+                && (header.get(3) & FEXTRA) != 0 && header.getShort(10) == 8
+                && header.get(12) == 'B' && header.get(13) == 'S' && header.getShort(14) == 4;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Compressed file ends inside a block header");
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.repositories.blobRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Byte throughput for uploads and downloads, and the size of the blob store.
+ * The size is summed from the blobs table (stored_size, so cold blobs count
+ * compressed) rather than by walking uploads/; even so it is a full scan, so
+ * the gauges report the last scheduled measurement instead of querying on
+ * every scrape.
+ */
+@Component
+public class StorageMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageMetrics.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private blobRepository blobRepository;
+
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private final AtomicLong fileCount = new AtomicLong();
+
+    private DistributionSummary uploadBytes;
+
+    private DistributionSummary downloadBytes;
+
+    @PostConstruct
+    void register() {
+        uploadBytes = DistributionSummary.builder("documents.upload.bytes")
+                .description("Bytes received per stored upload")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        downloadBytes = DistributionSummary.builder("documents.download.bytes")
+                .description("Bytes sent per download response")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        Gauge.builder("storage.uploads.used", usedBytes, AtomicLong::get)
+                .description("Bytes of stored blob files at the last measurement")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("storage.uploads.files", fileCount, AtomicLong::get)
+                .description("Stored blobs at the last measurement")
+                .register(meterRegistry);
+    }
+
+    public void recordUpload(long bytes) {
+        uploadBytes.record(bytes);
+    }
+
+    public void recordDownload(long bytes) {
+        if (bytes > 0) {
+            downloadBytes.record(bytes);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.usage-refresh-interval:PT5M}", initialDelay = 0)
+    public void measureDiskUsage() {
+        blobRepository.StoredTotals totals;
+        try {
+            totals = blobRepository.sumStored();
+        } catch (DataAccessException e) {
+            log.warn("Failed to measure blob storage: {}", e.getMessage());
+            return;
+        }
+
+        usedBytes.set(totals.getBytes());
+        fileCount.set(totals.getFiles());
+    }
+}
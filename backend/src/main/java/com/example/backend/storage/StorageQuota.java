@@ -0,0 +1,88 @@
+package com.example.backend.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.backend.entities.StorageUsage;
+import com.example.backend.errors.QuotaExceededException;
+import com.example.backend.repositories.storageUsageRepository;
+
+/**
+ * Per-user storage quotas. An upload reserves its bytes with one conditional
+ * update of the user's storage_usage row, in the same transaction that
+ * inserts the document, so the check and the count can never disagree and
+ * two concurrent uploads cannot both squeeze under the limit. Deletes give
+ * the bytes back in their transaction the same way.
+ */
+@Component
+public class StorageQuota {
+
+    @Autowired
+    private storageUsageRepository storageUsageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final long defaultQuota;
+
+    public StorageQuota(@Value("${app.storage.quota.default:1GB}") DataSize defaultQuota) {
+        this.defaultQuota = defaultQuota.toBytes();
+    }
+
+    /**
+     * Counts new documents against the user's quota, or throws
+     * QuotaExceededException. Must run inside the caller's transaction.
+     */
+    public void reserve(Long userId, long bytes, int files) {
+        if (storageUsageRepository.reserve(userId, bytes, files, defaultQuota) > 0) {
+            return;
+        }
+        // Over quota, or the user's first upload since quotas existed. Only the
+        // latter sums their documents; retried even if a concurrent upload
+        // created the row first
+        StorageUsage usage = storageUsageRepository.findById(userId).orElse(null);
+        if (usage == null) {
+            storageUsageRepository.initialize(userId);
+            if (storageUsageRepository.reserve(userId, bytes, files, defaultQuota) > 0) {
+                return;
+            }
+            usage = storageUsageRepository.findById(userId).orElseThrow();
+        }
+        throw exceeded(bytes, usage);
+    }
+
+    /** Returns deleted documents' bytes. Must run inside the caller's transaction. */
+    public void release(Long userId, long bytes, int files) {
+        storageUsageRepository.release(userId, bytes, files);
+    }
+
+    /**
+     * Fails fast when a declared upload size cannot fit, before any bytes are
+     * sent. Advisory only; {@link #reserve} is what enforces the quota.
+     */
+    public void checkRoom(Long userId, long bytes) {
+        StorageUsage usage = usage(userId);
+        if (usage.getUsedBytes() + bytes > quotaOf(usage)) {
+            throw exceeded(bytes, usage);
+        }
+    }
+
+    public StorageUsage usage(Long userId) {
+        return storageUsageRepository.findById(userId).orElseGet(() -> transactionTemplate.execute(status -> {
+            storageUsageRepository.initialize(userId);
+            return storageUsageRepository.findById(userId).orElseThrow();
+        }));
+    }
+
+    public long quotaOf(StorageUsage usage) {
+        return usage.getQuotaBytes() != null ? usage.getQuotaBytes() : defaultQuota;
+    }
+
+    private QuotaExceededException exceeded(long bytes, StorageUsage usage) {
+        return new QuotaExceededException("Storage quota exceeded: " + bytes + " bytes requested, "
+                + usage.getUsedBytes() + " of " + quotaOf(usage) + " bytes used");
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.storage;
+
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.entities.StorageUsage;
+import com.example.backend.repositories.storageUsageRepository;
+
+/**
+ * Recomputes every storage_usage row from the documents table, one user per
+ * short transaction, and corrects any drift (rows written before quotas, or
+ * changes made outside the application). The row is locked first: uploads
+ * and deletes adjust it relative to its current value and wait on that lock,
+ * so none of them is counted twice or lost while the sum is taken.
+ */
+@Component
+public class StorageUsageReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageUsageReconciler.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private storageUsageRepository storageUsageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${app.storage.quota.reconcile-interval:PT6H}",
+            initialDelayString = "${app.storage.quota.reconcile-initial-delay:PT10M}")
+    public void reconcileAll() {
+        long corrected = 0;
+        Long after = 0L;
+        List<Long> userIds;
+        do {
+            userIds = storageUsageRepository.findUserIdsAfter(after, Limit.of(BATCH_SIZE));
+            for (Long userId : userIds) {
+                try {
+                    if (reconcile(userId)) {
+                        corrected++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to reconcile storage usage for user {}: {}", userId, e.getMessage());
+                }
+                after = userId;
+            }
+        } while (userIds.size() == BATCH_SIZE);
+
+        if (corrected > 0) {
+            log.info("Storage usage: corrected {} users", corrected);
+        }
+    }
+
+    // Returns true when the stored totals were wrong
+    boolean reconcile(Long userId) {
+        return transactionTemplate.execute(status -> {
+            StorageUsage usage = storageUsageRepository.lockByUserId(userId).orElse(null);
+            if (usage == null) {
+                return false;
+            }
+            storageUsageRepository.UsageTotals actual = storageUsageRepository.sumDocuments(userId);
+            if (usage.getUsedBytes() == actual.getBytes() && usage.getFileCount() == actual.getFiles()) {
+                return false;
+            }
+
+            log.info("Storage usage for user {} drifted: {} bytes / {} files recorded, {} / {} actual", userId,
+                    usage.getUsedBytes(), usage.getFileCount(), actual.getBytes(), actual.getFiles());
+            usage.setUsedBytes(actual.getBytes());
+            usage.setFileCount(actual.getFiles());
+            usage.setUpdatedAt(new Date());
+            return true;
+        });
+    }
+}
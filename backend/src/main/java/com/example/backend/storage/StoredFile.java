@@ -0,0 +1,21 @@
+package com.example.backend.storage;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Result of streaming a request body to disk: where it landed, how many bytes
+ * were written and the SHA-256 of those bytes (lower-case hex).
+ */
+@Data
+@AllArgsConstructor
+public class StoredFile {
+
+    private Path path;
+
+    private long size;
+
+    private String sha256;
+}
@@ -0,0 +1,185 @@
+package com.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Copies an upload body into a {@link FileChannel} through a pooled, fixed-size
+ * buffer, counting bytes and computing the SHA-256 digest in the same pass.
+ * Memory per upload is one buffer no matter how large the file is.
+ */
+@Component
+public class StreamingFileWriter {
+
+    private final BufferPool bufferPool;
+
+    private final long maxFileSize;
+
+    public StreamingFileWriter(
+            @Value("${app.upload.buffer-size:64KB}") DataSize bufferSize,
+            @Value("${app.upload.buffer-pool-size:32}") int poolSize,
+            @Value("${app.upload.max-file-size:512MB}") DataSize maxFileSize) {
+        this.bufferPool = new BufferPool((int) bufferSize.toBytes(), poolSize);
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Streams {@code in} into a new temporary file inside {@code tempDir}. The
+     * caller owns the returned file and must move or delete it. On any failure
+     * the partial file is removed before the exception propagates.
+     */
+    public StoredFile write(InputStream in, Path tempDir) throws IOException {
+        return write(in, tempDir, null);
+    }
+
+    /**
+     * As {@link #write(InputStream, Path)}, showing every buffer to
+     * {@code headerScan} before it is written so a body with the wrong
+     * header is abandoned at its first buffer.
+     */
+    public StoredFile write(InputStream in, Path tempDir, PdfValidator.HeaderScan headerScan) throws IOException {
+        Files.createDirectories(tempDir);
+        Path target = tempDir.resolve(UUID.randomUUID() + ".part");
+
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = bufferPool.acquire();
+        long size = 0;
+
+        try (ReadableByteChannel source = Channels.newChannel(in);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE)) {
+
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxFileSize) {
+                    throw new IllegalArgumentException("File exceeds the maximum size of " + maxFileSize + " bytes");
+                }
+                if (headerScan != null) {
+                    headerScan.update(buffer);
+                }
+
+                // Digest first, then rewind so the same bytes go to disk
+                buffer.mark();
+                digest.update(buffer);
+                buffer.reset();
+
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            // An empty body is left for the caller to report as such
+            if (headerScan != null && size > 0) {
+                headerScan.finish();
+            }
+            out.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        } finally {
+            bufferPool.release(buffer);
+        }
+
+        return new StoredFile(target, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /** Creates a file of exactly {@code size} bytes for positional chunk writes. */
+    public void preallocate(Path target, long size) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+            file.setLength(size);
+        }
+    }
+
+    /**
+     * Streams exactly {@code length} bytes from {@code in} into {@code target}
+     * starting at {@code position}, using positional writes so several chunks
+     * of the same file can be written concurrently.
+     */
+    public void writeAt(InputStream in, Path target, long position, long length) throws IOException {
+        writeAt(in, target, position, length, null);
+    }
+
+    /** As above; pass a {@code headerScan} for the chunk that starts the file. */
+    public void writeAt(InputStream in, Path target, long position, long length,
+            PdfValidator.HeaderScan headerScan) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        long written = 0;
+
+        try (ReadableByteChannel source = Channels.newChannel(in);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > length) {
+                    throw new IllegalArgumentException("Chunk is larger than the expected " + length + " bytes");
+                }
+                if (headerScan != null) {
+                    headerScan.update(buffer);
+                }
+                while (buffer.hasRemaining()) {
+                    written += out.write(buffer, position + written);
+                }
+                buffer.clear();
+            }
+            if (written != length) {
+                throw new IllegalArgumentException("Chunk is " + written + " bytes, expected " + length);
+            }
+            if (headerScan != null) {
+                headerScan.finish();
+            }
+            out.force(false);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /** Reads a complete file once to compute its size and SHA-256. */
+    public StoredFile digest(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = bufferPool.acquire();
+        long size = 0;
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+
+        return new StoredFile(file, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.storage;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders the first page of a PDF as a small PNG. The page is rasterised
+ * straight at thumbnail scale (never at full size and then shrunk), so even
+ * a poster-sized page costs a few hundred kilobytes of pixels at most.
+ */
+@Component
+public class ThumbnailRenderer {
+
+    private final int maxWidth;
+
+    private final int maxHeight;
+
+    public ThumbnailRenderer(
+            @Value("${app.thumbnails.width:200}") int maxWidth,
+            @Value("${app.thumbnails.height:280}") int maxHeight) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public byte[] render(Path pdf) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(pdf.toFile()), null, null,
+                null, IOUtils.createTempFileOnlyStreamCache())) {
+            if (document.getNumberOfPages() == 0) {
+                throw new IOException("PDF has no pages");
+            }
+
+            PDPage page = document.getPage(0);
+            PDRectangle box = page.getCropBox();
+            boolean sideways = page.getRotation() % 180 != 0;
+            float width = sideways ? box.getHeight() : box.getWidth();
+            float height = sideways ? box.getWidth() : box.getHeight();
+            float scale = Math.min(maxWidth / width, maxHeight / height);
+
+            PDFRenderer renderer = new PDFRenderer(document);
+            renderer.setSubsamplingAllowed(true); // large embedded images are decoded at reduced resolution
+            BufferedImage image = renderer.renderImage(0, scale, ImageType.RGB);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+    }
+}
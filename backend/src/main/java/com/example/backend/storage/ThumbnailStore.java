@@ -0,0 +1,193 @@
+package com.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.example.backend.config.ExecutorConfig;
+import com.example.backend.entities.documents;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * First-page thumbnails for the document list. They are rendered by a
+ * THUMBNAIL job after upload and saved beside the blob, so they are shared by
+ * every document with the same content and deleted together with it.
+ *
+ * Served thumbnails are kept in memory, bounded by total bytes
+ * (app.thumbnails.cache-size). A thumbnail that is not on disk yet, because
+ * its job has not run or the document predates thumbnails, is queued on the
+ * bounded thumbnail executor and the request is told to come back; it never
+ * renders on the request thread. Only PDFs that fail to render are
+ * remembered as having no thumbnail. Documents stored before the blob store
+ * existed have no thumbnail.
+ */
+@Component
+public class ThumbnailStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailStore.class);
+
+    // Remembers PDFs that cannot be rendered so they are not retried on every request
+    private static final byte[] UNRENDERABLE = new byte[0];
+
+    /** Result of {@link #get}: the PNG, or none yet because it is still being rendered, or none at all. */
+    public record Thumbnail(byte[] png, boolean rendering) {
+
+        static final Thumbnail RENDERING = new Thumbnail(null, true);
+
+        static final Thumbnail NONE = new Thumbnail(null, false);
+    }
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ThumbnailRenderer thumbnailRenderer;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.THUMBNAIL_EXECUTOR)
+    private Executor thumbnailExecutor;
+
+    private final Cache<String, byte[]> cache;
+
+    // Blobs with a render queued or running, so each is rendered once however many requests ask
+    private final Set<String> rendering = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailStore(@Value("${app.thumbnails.cache-size:32MB}") DataSize cacheSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .weigher((String hash, byte[] png) -> Math.max(1, png.length))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "thumbnails");
+    }
+
+    /** Validator for a document's thumbnail; it only changes with the content. */
+    public String etagFor(documents document) {
+        return "\"" + document.getBlobHash() + "-thumb\"";
+    }
+
+    /** Renders the thumbnail to disk unless it is already there; run by the THUMBNAIL job. */
+    public void generate(documents document) throws IOException {
+        String hash = document.getBlobHash();
+        if (hash == null || Files.exists(blobStore.thumbnailPathFor(hash))) {
+            return;
+        }
+        render(hash);
+    }
+
+    /**
+     * The document's thumbnail from memory or disk. When it has not been
+     * rendered yet a render is queued and {@link Thumbnail#rendering} is set.
+     */
+    public Thumbnail get(documents document) throws IOException {
+        String hash = document.getBlobHash();
+        if (hash == null) {
+            return Thumbnail.NONE;
+        }
+
+        byte[] png = cache.getIfPresent(hash);
+        if (png == null) {
+            try {
+                png = Files.readAllBytes(blobStore.thumbnailPathFor(hash));
+            } catch (NoSuchFileException e) {
+                renderLater(hash);
+                return Thumbnail.RENDERING;
+            }
+            cache.put(hash, png);
+        }
+        return png == UNRENDERABLE ? Thumbnail.NONE : new Thumbnail(png, false);
+    }
+
+    private void renderLater(String hash) {
+        if (!rendering.add(hash)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> {
+                try {
+                    byte[] png = render(hash);
+                    if (png != null) {
+                        cache.put(hash, png);
+                    }
+                } catch (UnrenderablePdfException e) {
+                    log.warn("Cannot render thumbnail for blob {}: {}", hash, e.getMessage());
+                    cache.put(hash, UNRENDERABLE);
+                } catch (IOException | RuntimeException e) {
+                    // Missing or unreadable source, e.g. mid tier change: try again on a later request
+                    log.warn("Thumbnail for blob {} not rendered: {}", hash, e.getMessage());
+                } finally {
+                    rendering.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Render queue full; a later request queues it again
+            rendering.remove(hash);
+        }
+    }
+
+    private byte[] render(String hash) throws IOException {
+        Path incoming = blobStore.getIncomingDir();
+        Files.createDirectories(incoming);
+
+        byte[] png;
+        Path raw = blobStore.pathFor(hash);
+        if (Files.exists(raw)) {
+            png = renderPdf(raw);
+        } else {
+            // Cold tier: PDFBox needs random access, so unpack to a scratch file first
+            Path unpacked = Files.createTempFile(incoming, "thumb-", ".pdf");
+            try {
+                try (InputStream in = BlobStore.openDecompressed(blobStore.compressedPathFor(hash))) {
+                    Files.copy(in, unpacked, StandardCopyOption.REPLACE_EXISTING);
+                }
+                png = renderPdf(unpacked);
+            } finally {
+                Files.deleteIfExists(unpacked);
+            }
+        }
+
+        Path rendered = Files.createTempFile(incoming, "thumb-", ".png");
+        try {
+            Files.write(rendered, png);
+            return blobStore.placeThumbnail(hash, rendered) ? png : null;
+        } finally {
+            Files.deleteIfExists(rendered);
+        }
+    }
+
+    // Failures here are the PDF's own, unlike failures to read the blob around it
+    private byte[] renderPdf(Path pdf) throws UnrenderablePdfException {
+        try {
+            return thumbnailRenderer.render(pdf);
+        } catch (IOException | RuntimeException e) {
+            throw new UnrenderablePdfException(e);
+        }
+    }
+
+    static final class UnrenderablePdfException extends IOException {
+
+        UnrenderablePdfException(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.errors.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimiterTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	// 3 attempts per email per minute, 10 per IP per minute
+	private final LoginRateLimiter limiter = new LoginRateLimiter(3, Duration.ofMinutes(1), 10,
+			Duration.ofMinutes(1), 1000, registry);
+
+	private final long start = System.nanoTime();
+
+	@Test
+	void rejectsEmailOnceBucketIsEmpty() {
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("Guest@Gmail.com", "10.0.0.1", start);
+		}
+
+		TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+				() -> limiter.acquire("guest@gmail.com ", "10.0.0.2", start));
+		assertEquals(20, e.getRetryAfterSeconds());
+		assertEquals(1.0, registry.counter("auth.login.throttled", "key", "email").count());
+	}
+
+	@Test
+	void refillsOverTime() {
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("a@example.com", "10.0.0.1", start);
+		}
+
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("a@example.com", "10.0.0.1", start));
+		assertDoesNotThrow(() -> limiter.acquire("a@example.com", "10.0.0.1", start + TimeUnit.SECONDS.toNanos(20)));
+	}
+
+	@Test
+	void rejectsIpSprayingManyEmails() {
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire("user" + i + "@example.com", "10.0.0.9", start);
+		}
+
+		assertThrows(TooManyRequestsException.class,
+				() -> limiter.acquire("someone@example.com", "10.0.0.9", start));
+		assertDoesNotThrow(() -> limiter.acquire("someone@example.com", "10.0.0.10", start));
+	}
+}
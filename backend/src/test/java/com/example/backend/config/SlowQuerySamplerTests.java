@@ -0,0 +1,44 @@
+package com.example.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class SlowQuerySamplerTests {
+
+	private final LoggerContext context = new LoggerContext();
+
+	private final SlowQuerySampler sampler = new SlowQuerySampler();
+
+	@Test
+	void dropsSlowQueriesOutsideTheSample() {
+		sampler.setSampleRate(0);
+
+		assertEquals(FilterReply.DENY, decide(context.getLogger(SlowQuerySampler.SLOW_QUERY_LOGGER)));
+	}
+
+	@Test
+	void keepsEverySlowQueryAtFullRate() {
+		sampler.setSampleRate(1);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(FilterReply.NEUTRAL, decide(context.getLogger(SlowQuerySampler.SLOW_QUERY_LOGGER)));
+		}
+	}
+
+	@Test
+	void leavesOtherLoggersAlone() {
+		sampler.setSampleRate(0);
+
+		assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("org.hibernate.SQL")));
+	}
+
+	private FilterReply decide(Logger logger) {
+		return sampler.decide(null, logger, Level.INFO, "Slow query took {} milliseconds", null, null);
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationListTests {
+
+	private final TokenRevocationList revocations = new TokenRevocationList(1000);
+
+	private final long inOneHour = System.currentTimeMillis() + 3_600_000;
+
+	@Test
+	void rejectsOnlyRevokedTokens() {
+		String revoked = UUID.randomUUID().toString();
+		revocations.add(revoked, inOneHour);
+
+		assertTrue(revocations.isRevoked(revoked));
+		assertFalse(revocations.isRevoked(UUID.randomUUID().toString()));
+		assertFalse(revocations.isRevoked(null));
+	}
+
+	@Test
+	void ignoresTokensThatAlreadyExpired() {
+		String expired = UUID.randomUUID().toString();
+		revocations.add(expired, System.currentTimeMillis() - 1);
+
+		assertFalse(revocations.isRevoked(expired));
+		assertEquals(0, revocations.size());
+	}
+
+	@Test
+	void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+		TokenRevocationList.BloomFilter filter = new TokenRevocationList.BloomFilter(10_000, 0.001);
+		List<String> added = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			String jti = UUID.randomUUID().toString();
+			filter.put(jti);
+			added.add(jti);
+		}
+		for (String jti : added) {
+			assertTrue(filter.mightContain(jti));
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+		// Expected around 100 at 0.1%
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+class jwtProviderTests {
+
+	@Test
+	void repeatVerificationIsServedFromCache() {
+		String header = "Bearer " + jwtProvider.generateToken("cached@example.com", 42L, Duration.ofMinutes(5));
+		long hits = jwtProvider.verifiedTokenCache().stats().hitCount();
+
+		UserPrincipal first = jwtProvider.getPrincipalFromJwtToken(header);
+		UserPrincipal second = jwtProvider.getPrincipalFromJwtToken(header);
+
+		assertSame(first, second);
+		assertEquals(42L, second.getId());
+		assertEquals("cached@example.com", second.getEmail());
+		assertEquals(hits + 1, jwtProvider.verifiedTokenCache().stats().hitCount());
+	}
+
+	@Test
+	void cachedTokenIsRejectedOnceItExpires() throws Exception {
+		String header = "Bearer " + jwtProvider.generateToken("expiring@example.com", 42L, Duration.ofSeconds(1));
+		UserPrincipal principal = jwtProvider.getPrincipalFromJwtToken(header);
+
+		Thread.sleep(Math.max(0, principal.getExpiresAt() - System.currentTimeMillis()) + 50);
+
+		assertThrows(ExpiredJwtException.class, () -> jwtProvider.getPrincipalFromJwtToken(header));
+	}
+
+	@Test
+	void alteredTokenIsNotServedFromCache() {
+		String token = jwtProvider.generateToken("tampered@example.com", 42L, Duration.ofMinutes(5));
+		jwtProvider.getPrincipalFromJwtToken("Bearer " + token);
+
+		// Same header and claims, different signature
+		int signature = token.lastIndexOf('.') + 1;
+		String altered = token.substring(0, signature) + (token.charAt(signature) == 'A' ? 'B' : 'A')
+				+ token.substring(signature + 1);
+
+		assertThrows(SignatureException.class, () -> jwtProvider.getPrincipalFromJwtToken("Bearer " + altered));
+	}
+}
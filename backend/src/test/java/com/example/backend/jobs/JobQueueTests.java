@@ -0,0 +1,162 @@
+package com.example.backend.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.entities.DocumentJob;
+import com.example.backend.entities.documents;
+import com.example.backend.repositories.documentJobRepository;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = { "app.jobs.max-attempts=3", "app.jobs.backoff=10s", "app.jobs.max-backoff=1m",
+		"app.jobs.done-retention=1d" })
+@Import(JobQueue.class)
+class JobQueueTests {
+
+	@Autowired
+	private JobQueue jobQueue;
+
+	@Autowired
+	private documentJobRepository documentJobRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		documentJobRepository.deleteAll();
+	}
+
+	@Test
+	void claimsEachDueJobOnce() {
+		enqueue(1L);
+
+		List<DocumentJob> claimed = jobQueue.claim(10);
+
+		assertEquals(3, claimed.size());
+		for (DocumentJob job : documentJobRepository.findByDocumentIdOrderById(1L)) {
+			assertEquals(DocumentJob.Status.RUNNING, job.getStatus());
+			assertEquals(1, job.getAttempts());
+			assertTrue(job.getLockedUntil().after(new Date()));
+		}
+		assertTrue(jobQueue.claim(10).isEmpty());
+	}
+
+	@Test
+	void claimsNoMoreThanAsked() {
+		enqueue(1L);
+
+		assertEquals(2, jobQueue.claim(2).size());
+		assertEquals(1, jobQueue.claim(2).size());
+	}
+
+	@Test
+	void reclaimsJobsWhoseLeaseRanOut() {
+		enqueue(1L);
+		DocumentJob job = jobQueue.claim(1).get(0);
+		job.setLockedUntil(new Date(System.currentTimeMillis() - 1000));
+		documentJobRepository.save(job);
+
+		List<DocumentJob> reclaimed = jobQueue.claim(10);
+
+		assertTrue(reclaimed.stream().anyMatch(j -> j.getId().equals(job.getId()) && j.getAttempts() == 2));
+	}
+
+	@Test
+	void staleClaimCannotFinishAReclaimedJob() {
+		enqueue(1L);
+		DocumentJob stale = jobQueue.claim(1).get(0);
+		DocumentJob expired = documentJobRepository.findById(stale.getId()).orElseThrow();
+		expired.setLockedUntil(new Date(System.currentTimeMillis() - 1000));
+		documentJobRepository.save(expired);
+		DocumentJob current = jobQueue.claim(10).stream().filter(j -> j.getId().equals(stale.getId())).findFirst()
+				.orElseThrow();
+
+		jobQueue.complete(stale);
+		assertEquals(DocumentJob.Status.RUNNING, documentJobRepository.findById(stale.getId()).orElseThrow().getStatus());
+
+		jobQueue.fail(current, new IllegalStateException("boom"));
+		jobQueue.complete(stale);
+		DocumentJob job = documentJobRepository.findById(stale.getId()).orElseThrow();
+		assertEquals(DocumentJob.Status.PENDING, job.getStatus());
+		assertEquals("IllegalStateException: boom", job.getLastError());
+	}
+
+	@Test
+	void failedJobBacksOffBeforeItIsRetried() {
+		enqueue(1L);
+		DocumentJob job = jobQueue.claim(1).get(0);
+		long before = System.currentTimeMillis();
+
+		assertTrue(jobQueue.fail(job, new IllegalStateException("boom")));
+
+		DocumentJob failed = documentJobRepository.findById(job.getId()).orElseThrow();
+		assertEquals(DocumentJob.Status.PENDING, failed.getStatus());
+		assertEquals("IllegalStateException: boom", failed.getLastError());
+		assertTrue(failed.getNextAttemptAt().getTime() >= before + 10_000);
+		assertFalse(jobQueue.claim(10).stream().anyMatch(j -> j.getId().equals(job.getId())));
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		enqueue(1L);
+		DocumentJob job = jobQueue.claim(1).get(0);
+		job.setAttempts(3);
+		documentJobRepository.save(job);
+
+		assertFalse(jobQueue.fail(job, new IllegalStateException("boom")));
+
+		assertEquals(DocumentJob.Status.FAILED, documentJobRepository.findById(job.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void backoffDoublesUpToTheCap() {
+		assertEquals(10_000, jobQueue.backoffFor(1));
+		assertEquals(20_000, jobQueue.backoffFor(2));
+		assertEquals(40_000, jobQueue.backoffFor(3));
+		assertEquals(60_000, jobQueue.backoffFor(4));
+		assertEquals(60_000, jobQueue.backoffFor(100));
+	}
+
+	@Test
+	void prunesOnlyOldFinishedJobs() {
+		enqueue(1L);
+		List<DocumentJob> jobs = jobQueue.claim(10);
+		Date old = new Date(System.currentTimeMillis() - 2 * 24 * 3600 * 1000L);
+		documentJobRepository.finish(jobs.get(0).getId(), 1, DocumentJob.Status.DONE, old, null, old);
+		documentJobRepository.finish(jobs.get(1).getId(), 1, DocumentJob.Status.DONE, new Date(), null, new Date());
+		documentJobRepository.finish(jobs.get(2).getId(), 1, DocumentJob.Status.FAILED, old, "gave up", old);
+
+		assertEquals(1, jobQueue.pruneDone());
+
+		assertEquals(Set.of(jobs.get(1).getId(), jobs.get(2).getId()),
+				documentJobRepository.findAll().stream().map(DocumentJob::getId).collect(Collectors.toSet()));
+	}
+
+	private void enqueue(Long documentId) {
+		documents document = new documents();
+		document.setId(documentId);
+		transactionTemplate.executeWithoutResult(status -> jobQueue.enqueueUploads(List.of(document)));
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.backend.response.searchHit;
+
+class DocumentIndexTests {
+
+	@TempDir
+	Path tempDir;
+
+	private DocumentIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new DocumentIndex(tempDir.resolve("index").toString(), 2, Duration.ofMinutes(10));
+	}
+
+	@AfterEach
+	void tearDown() {
+		index.close();
+	}
+
+	@Test
+	void findsDocumentsByContentWithSnippet() throws Exception {
+		index.add(1L, 10L, "scan.pdf", new Date(), "MRI report from March: no abnormalities found.");
+		index.add(1L, 11L, "bloodwork.pdf", new Date(), "Hemoglobin within normal range.");
+
+		List<searchHit> hits = index.search(1L, "mri march", 10);
+
+		assertEquals(1, hits.size());
+		assertEquals(10L, hits.get(0).getId());
+		assertTrue(hits.get(0).getSnippet().contains("<b>MRI</b>"), hits.get(0).getSnippet());
+	}
+
+	@Test
+	void keepsUsersApart() throws Exception {
+		index.add(1L, 10L, "scan.pdf", new Date(), "MRI report");
+		index.add(2L, 20L, "scan.pdf", new Date(), "MRI report");
+
+		assertEquals(List.of(20L), index.search(2L, "mri", 10).stream().map(searchHit::getId).toList());
+		assertTrue(index.search(3L, "mri", 10).isEmpty());
+	}
+
+	@Test
+	void deleteRemovesFromResults() throws Exception {
+		index.add(1L, 10L, "scan.pdf", new Date(), "MRI report");
+		index.add(1L, 11L, "other.pdf", new Date(), "MRI follow-up");
+
+		index.delete(1L, List.of(10L));
+
+		assertEquals(List.of(11L), index.search(1L, "mri", 10).stream().map(searchHit::getId).toList());
+	}
+
+	@Test
+	void failedOpenLeavesTheLockUsable() throws Exception {
+		// A plain file where the user's index directory belongs makes opening it fail
+		Files.createDirectories(tempDir.resolve("index"));
+		Files.writeString(tempDir.resolve("index").resolve("1"), "not an index");
+
+		assertThrows(UncheckedIOException.class, () -> index.add(1L, 10L, "scan.pdf", new Date(), "MRI report"));
+
+		Files.delete(tempDir.resolve("index").resolve("1"));
+		index.add(1L, 10L, "scan.pdf", new Date(), "MRI report");
+		assertEquals(1, index.search(1L, "mri", 10).size());
+	}
+
+	@Test
+	void reopensClosedIndexes() throws Exception {
+		// max two open writers; the sweep closes the least recently used one
+		for (long user = 1; user <= 3; user++) {
+			index.add(user, user * 10, "scan.pdf", new Date(), "MRI report");
+		}
+		index.closeIdle();
+
+		for (long user = 1; user <= 3; user++) {
+			assertEquals(1, index.search(user, "mri", 10).size());
+		}
+	}
+
+	@Test
+	void extractsTextFromPdf() throws Exception {
+		Path pdf = tempDir.resolve("report.pdf");
+		try (PDDocument document = new PDDocument()) {
+			PDPage page = new PDPage();
+			document.addPage(page);
+			try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+				content.beginText();
+				content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+				content.newLineAtOffset(72, 700);
+				content.showText("Radiology report for March");
+				content.endText();
+			}
+			document.save(pdf.toFile());
+		}
+
+		String text = new PdfTextExtractor(1000).extract(pdf);
+
+		assertTrue(text.contains("Radiology report for March"), text);
+	}
+}
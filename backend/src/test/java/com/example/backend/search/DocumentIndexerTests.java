@@ -0,0 +1,119 @@
+package com.example.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.entities.User;
+import com.example.backend.entities.documents;
+import com.example.backend.repositories.fileRepository;
+import com.example.backend.response.searchHit;
+import com.example.backend.storage.BlobStore;
+import com.example.backend.storage.SeekableGzip;
+
+class DocumentIndexerTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final DocumentIndexer indexer = new DocumentIndexer();
+
+	private final BlobStore blobStore = mock(BlobStore.class);
+
+	private final fileRepository fileRepository = mock(fileRepository.class);
+
+	private DocumentIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new DocumentIndex(tempDir.resolve("index").toString(), 2, Duration.ofMinutes(10));
+		when(blobStore.getIncomingDir()).thenReturn(tempDir.resolve("incoming"));
+		when(fileRepository.existsById(10L)).thenReturn(true);
+
+		ReflectionTestUtils.setField(indexer, "documentIndex", index);
+		ReflectionTestUtils.setField(indexer, "pdfTextExtractor", new PdfTextExtractor(1000));
+		ReflectionTestUtils.setField(indexer, "blobStore", blobStore);
+		ReflectionTestUtils.setField(indexer, "fileRepository", fileRepository);
+	}
+
+	@AfterEach
+	void tearDown() {
+		index.close();
+	}
+
+	@Test
+	void indexesRawBlob() throws Exception {
+		documents document = document();
+		when(blobStore.resolve(document)).thenReturn(writePdf(tempDir.resolve("blob")));
+
+		indexer.index(document);
+
+		assertEquals(List.of(10L), index.search(1L, "radiology", 10).stream().map(searchHit::getId).toList());
+	}
+
+	@Test
+	void indexesBlobThatOnlyExistsCompressed() throws Exception {
+		Path pdf = writePdf(tempDir.resolve("report.pdf"));
+		Path compressed = tempDir.resolve("blob.gz");
+		try (InputStream in = Files.newInputStream(pdf); OutputStream out = Files.newOutputStream(compressed)) {
+			SeekableGzip.compress(in, out);
+		}
+		Files.delete(pdf);
+		documents document = document();
+		when(blobStore.resolve(document)).thenReturn(compressed);
+
+		indexer.index(document);
+
+		assertEquals(List.of(10L), index.search(1L, "radiology", 10).stream().map(searchHit::getId).toList());
+		// The scratch copy is gone
+		try (var leftovers = Files.list(tempDir.resolve("incoming"))) {
+			assertEquals(0, leftovers.count());
+		}
+	}
+
+	private static documents document() {
+		User user = new User();
+		user.setId(1L);
+		documents document = new documents();
+		document.setId(10L);
+		document.setFileName("report.pdf");
+		document.setUploadDate(new Date());
+		document.setUser(user);
+		return document;
+	}
+
+	private static Path writePdf(Path pdf) throws Exception {
+		try (PDDocument document = new PDDocument()) {
+			PDPage page = new PDPage();
+			document.addPage(page);
+			try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+				content.beginText();
+				content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+				content.newLineAtOffset(72, 700);
+				content.showText("Radiology report for March");
+				content.endText();
+			}
+			document.save(pdf.toFile());
+		}
+		return pdf;
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.errors.TooManyRequestsException;
+import com.example.backend.repositories.userRepository;
+
+class PasswordHashingServiceImplTests {
+
+	private final PasswordHashingServiceImpl service = new PasswordHashingServiceImpl();
+
+	private final userRepository userRepository = mock(userRepository.class);
+
+	private ThreadPoolTaskExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+
+		ReflectionTestUtils.setField(service, "passwordEncoder", new BCryptPasswordEncoder(4));
+		ReflectionTestUtils.setField(service, "passwordHashExecutor", executor);
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "strength", 4);
+		ReflectionTestUtils.setField(service, "timeout", Duration.ofSeconds(10));
+		ReflectionTestUtils.setField(service, "retryAfter", Duration.ofSeconds(2));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void encodesAndMatchesOnThePool() {
+		String hash = service.encode("secret");
+
+		assertTrue(service.matches("secret", hash));
+	}
+
+	@Test
+	void rejectsWithRetryAfterWhenQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> await(release)); // occupies the only thread
+		executor.execute(() -> await(release)); // fills the queue
+
+		try {
+			TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+					() -> service.encode("secret"));
+			assertEquals(2, e.getRetryAfterSeconds());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void reencodesWhenStoredCostDiffers() {
+		String oldHash = new BCryptPasswordEncoder(5).encode("secret");
+
+		service.upgradeIfNeeded(7L, "secret", oldHash);
+
+		verify(userRepository, timeout(5000)).updatePassword(eq(7L), anyString());
+	}
+
+	@Test
+	void keepsHashWithConfiguredCost() throws Exception {
+		String hash = new BCryptPasswordEncoder(4).encode("secret");
+
+		service.upgradeIfNeeded(7L, "secret", hash);
+		executor.getThreadPoolExecutor().shutdown();
+		executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+		verify(userRepository, never()).updatePassword(eq(7L), anyString());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
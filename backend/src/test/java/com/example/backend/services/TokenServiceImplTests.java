@@ -0,0 +1,175 @@
+package com.example.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.config.TokenRevocationList;
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.config.jwtProvider;
+import com.example.backend.entities.RefreshToken;
+import com.example.backend.entities.RevokedToken;
+import com.example.backend.entities.User;
+import com.example.backend.repositories.refreshTokenRepository;
+import com.example.backend.repositories.revokedTokenRepository;
+import com.example.backend.repositories.userRepository;
+import com.example.backend.response.AuthResponse;
+
+// Not wrapped in a test transaction: each service call commits, and row locks behave as in production
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ TokenServiceImpl.class, TokenRevocationList.class })
+class TokenServiceImplTests {
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private TokenRevocationList revocations;
+
+	@Autowired
+	private refreshTokenRepository refreshTokenRepository;
+
+	@Autowired
+	private revokedTokenRepository revokedTokenRepository;
+
+	@Autowired
+	private userRepository userRepository;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		refreshTokenRepository.deleteAll();
+		revokedTokenRepository.deleteAll();
+		userRepository.deleteAll();
+
+		User newUser = new User();
+		newUser.setEmail("tokens@example.com");
+		user = userRepository.save(newUser);
+	}
+
+	@Test
+	void refreshRotatesBothTokens() {
+		AuthResponse login = tokenService.issue(user.getId(), user.getEmail(), "ok");
+
+		AuthResponse refreshed = tokenService.refresh(login.getRefreshToken());
+
+		assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+		assertNotEquals(tokenId(login), tokenId(refreshed));
+		assertEquals(user.getEmail(), principal(refreshed).getEmail());
+		assertNotNull(tokenService.refresh(refreshed.getRefreshToken()).getToken());
+	}
+
+	@Test
+	void reuseWithinGraceIsRefusedButRevokesNothing() {
+		AuthResponse login = tokenService.issue(user.getId(), user.getEmail(), "ok");
+		AuthResponse refreshed = tokenService.refresh(login.getRefreshToken());
+
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(login.getRefreshToken()));
+
+		assertFalse(revocations.isRevoked(tokenId(refreshed)));
+		assertNotNull(tokenService.refresh(refreshed.getRefreshToken()));
+	}
+
+	@Test
+	void reuseAfterGraceRevokesFamilyAndItsAccessTokens() {
+		AuthResponse login = tokenService.issue(user.getId(), user.getEmail(), "ok");
+		AuthResponse refreshed = tokenService.refresh(login.getRefreshToken());
+
+		// The first token was used a minute ago, well past the 10s grace
+		RefreshToken used = refreshTokenRepository.findAll().stream().filter(t -> t.getUsedAt() != null)
+				.findFirst().orElseThrow();
+		used.setUsedAt(new Date(System.currentTimeMillis() - 60_000));
+		refreshTokenRepository.save(used);
+
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(login.getRefreshToken()));
+
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(refreshed.getRefreshToken()));
+		assertTrue(revocations.isRevoked(tokenId(login)));
+		assertTrue(revocations.isRevoked(tokenId(refreshed)));
+		assertEquals(2, revokedTokenRepository.count());
+	}
+
+	@Test
+	void logoutRevokesAccessTokenAndRefreshFamily() {
+		AuthResponse login = tokenService.issue(user.getId(), user.getEmail(), "ok");
+		AuthResponse other = tokenService.issue(user.getId(), user.getEmail(), "ok");
+
+		tokenService.logout(principal(login), login.getRefreshToken());
+
+		assertTrue(revocations.isRevoked(tokenId(login)));
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(login.getRefreshToken()));
+		// Another login of the same user is a different family
+		assertFalse(revocations.isRevoked(tokenId(other)));
+		assertNotNull(tokenService.refresh(other.getRefreshToken()));
+	}
+
+	@Test
+	void logoutWithExpiredAccessTokenStillEndsTheSession() {
+		AuthResponse login = tokenService.issue(user.getId(), user.getEmail(), "ok");
+		UserPrincipal expired = new UserPrincipal(user.getId(), user.getEmail(), UUID.randomUUID().toString(),
+				System.currentTimeMillis() - 1000);
+
+		tokenService.logout(expired, login.getRefreshToken());
+
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(login.getRefreshToken()));
+		assertFalse(revokedTokenRepository.findAll().stream().anyMatch(t -> t.getJti().equals(expired.getTokenId())));
+
+		// Access tokens from the family that have not expired are revoked with it
+		assertTrue(revocations.isRevoked(tokenId(login)));
+	}
+
+	@Test
+	void logoutEverywhereRevokesEveryLogin() {
+		AuthResponse first = tokenService.issue(user.getId(), user.getEmail(), "ok");
+		AuthResponse second = tokenService.issue(user.getId(), user.getEmail(), "ok");
+
+		tokenService.logoutEverywhere(principal(first));
+
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(first.getRefreshToken()));
+		assertThrows(BadCredentialsException.class, () -> tokenService.refresh(second.getRefreshToken()));
+		assertTrue(revocations.isRevoked(tokenId(first)));
+		assertTrue(revocations.isRevoked(tokenId(second)));
+	}
+
+	@Test
+	void pollPicksUpRevocationsFromOtherInstances() {
+		String jti = UUID.randomUUID().toString();
+		Date now = new Date();
+		revokedTokenRepository.save(
+				new RevokedToken(null, jti, user.getId(), new Date(now.getTime() + 60_000), now));
+		assertFalse(revocations.isRevoked(jti));
+
+		revocations.poll();
+
+		assertTrue(revocations.isRevoked(jti));
+	}
+
+	private static UserPrincipal principal(AuthResponse response) {
+		return jwtProvider.getPrincipalFromJwtToken("Bearer " + response.getToken());
+	}
+
+	private static String tokenId(AuthResponse response) {
+		return principal(response).getTokenId();
+	}
+}
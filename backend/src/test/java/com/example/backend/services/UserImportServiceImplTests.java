@@ -0,0 +1,140 @@
+package com.example.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.config.ExecutorConfig;
+import com.example.backend.entities.User;
+import com.example.backend.repositories.userRepository;
+import com.example.backend.response.userImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ UserImportServiceImpl.class, UserImportServiceImplTests.Config.class })
+class UserImportServiceImplTests {
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		PasswordEncoder passwordEncoder() {
+			return new BCryptPasswordEncoder(4);
+		}
+
+		@Bean(name = ExecutorConfig.IMPORT_HASH_EXECUTOR)
+		Executor importHashExecutor() {
+			return Runnable::run;
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+	}
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private userRepository userRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeEach
+	void setUp() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void createsUsersAndReportsExistingEmailsAsDuplicates() throws Exception {
+		User existing = new User();
+		existing.setEmail("taken@example.com");
+		userRepository.save(existing);
+
+		List<userImportResult> results = importCsv("email,password,name\n"
+				+ "taken@example.com,secret,Taken\n"
+				+ "new@example.com,secret,New\n"
+				+ "new@example.com,secret,Again\n");
+
+		assertEquals(List.of("duplicate", "created", "duplicate"), statuses(results));
+		assertEquals("New", userRepository.findByEmail("new@example.com").getName());
+		assertEquals(2, userRepository.count());
+	}
+
+	@Test
+	void reportsOverlongValuesAsInvalidNotDuplicate() throws Exception {
+		List<userImportResult> results = importCsv("email,password,city\n"
+				+ "long@example.com,secret," + "x".repeat(256) + "\n"
+				+ "ok@example.com,secret,Pune\n");
+
+		assertEquals(List.of("invalid", "created"), statuses(results));
+		assertTrue(results.get(0).getMessage().contains("city"), results.get(0).getMessage());
+		assertEquals(1, userRepository.count());
+	}
+
+	@Test
+	void rejectsPasswordsBCryptWouldTruncate() throws Exception {
+		List<userImportResult> results = importCsv("email,password\n"
+				+ "long@example.com," + "p".repeat(73) + "\n");
+
+		assertEquals(List.of("invalid"), statuses(results));
+		assertEquals(0, userRepository.count());
+	}
+
+	@Test
+	void reportsMalformedNdjsonRowsAndKeepsGoing() throws Exception {
+		String body = "{\"email\":\"a@example.com\",\"password\":\"secret\"}\n"
+				+ "{not json\n"
+				+ "{\"email\":\"no-at-sign\",\"password\":\"secret\"}\n";
+
+		List<userImportResult> results = importUsers(body, UserImportService.Format.NDJSON);
+
+		assertEquals(List.of("created", "invalid", "invalid"), statuses(results));
+		assertEquals(List.of(1L, 2L, 3L), results.stream().map(userImportResult::getRow).toList());
+	}
+
+	private List<userImportResult> importCsv(String body) throws Exception {
+		return importUsers(body, UserImportService.Format.CSV);
+	}
+
+	private List<userImportResult> importUsers(String body, UserImportService.Format format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		userImportService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, out);
+
+		List<userImportResult> results = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			if (!line.isBlank()) {
+				results.add(objectMapper.readValue(line, userImportResult.class));
+			}
+		}
+		return results;
+	}
+
+	private static List<String> statuses(List<userImportResult> results) {
+		return results.stream().map(userImportResult::getStatus).toList();
+	}
+}
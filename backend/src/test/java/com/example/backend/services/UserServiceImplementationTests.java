@@ -0,0 +1,94 @@
+package com.example.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.config.CacheConfig;
+import com.example.backend.config.UserPrincipal;
+import com.example.backend.entities.User;
+import com.example.backend.repositories.userRepository;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ UserServiceImplementation.class, UserServiceImplementationTests.Config.class })
+class UserServiceImplementationTests {
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(CacheConfig.USER_CACHE);
+		}
+	}
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private userRepository userRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		cacheManager.getCache(CacheConfig.USER_CACHE).clear();
+		userRepository.deleteAll();
+
+		User newUser = new User();
+		newUser.setEmail("cached@example.com");
+		newUser.setName("Cached");
+		newUser.setPassword("hash");
+		user = userRepository.save(newUser);
+	}
+
+	@Test
+	void callersGetTheirOwnCopyOfTheCachedUser() throws Exception {
+		User first = userService.findCurrentUser(principal(user.getId()));
+		first.setName("Changed by a caller");
+
+		User second = userService.findCurrentUser(principal(user.getId()));
+
+		assertNotSame(first, second);
+		assertEquals("Cached", second.getName());
+		assertNull(second.getPassword());
+	}
+
+	@Test
+	void tokenWithoutUserIdIsUnauthorized() {
+		assertThrows(UsernameNotFoundException.class, () -> userService.findCurrentUser(principal(null)));
+	}
+
+	@Test
+	void tokenForDeletedAccountIsUnauthorized() {
+		userRepository.deleteAll();
+
+		assertThrows(UsernameNotFoundException.class, () -> userService.findCurrentUser(principal(user.getId())));
+	}
+
+	private UserPrincipal principal(Long id) {
+		return new UserPrincipal(id, user.getEmail(), "jti", Long.MAX_VALUE);
+	}
+}
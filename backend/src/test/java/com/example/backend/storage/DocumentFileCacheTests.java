@@ -0,0 +1,69 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.entities.documents;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DocumentFileCacheTests {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final DocumentFileCache cache = new DocumentFileCache(100, Duration.ofMinutes(5), meterRegistry,
+			nanos::get);
+
+	@Test
+	void servesCachedFileToItsOwner() {
+		DocumentFile file = file(7L);
+		cache.put(1L, file);
+
+		assertSame(file, cache.get(1L, 7L));
+		assertNull(cache.get(2L, 7L));
+		assertNull(cache.get(1L, 8L));
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "documentFiles").tag("result", "hit")
+				.functionCounter().count());
+	}
+
+	@Test
+	void expiresEntriesAfterTheTtl() {
+		cache.put(1L, file(7L));
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(4));
+		assertEquals(7L, cache.get(1L, 7L).document().getId());
+
+		nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+		assertNull(cache.get(1L, 7L));
+	}
+
+	@Test
+	void deleteInvalidatesOnlyTheDeletedDocuments() {
+		cache.put(1L, file(7L));
+		cache.put(1L, file(8L));
+		cache.put(2L, file(9L));
+
+		cache.invalidate(1L, List.of(7L, 9L));
+
+		assertNull(cache.get(1L, 7L));
+		assertEquals(8L, cache.get(1L, 8L).document().getId());
+		assertEquals(9L, cache.get(2L, 9L).document().getId());
+	}
+
+	private static DocumentFile file(Long id) {
+		documents document = new documents();
+		document.setId(id);
+		return new DocumentFile(document, Path.of("uploads", id + ".pdf"), 100, 0);
+	}
+}
@@ -0,0 +1,163 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.backend.entities.documents;
+
+class FileDownloaderTests {
+
+	private static final String HASH = "ab".repeat(32);
+
+	@TempDir
+	Path tempDir;
+
+	private final FileDownloader downloader = new FileDownloader();
+
+	private final byte[] content = new byte[1000];
+
+	private Path file;
+
+	private documents document;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		file = Files.write(tempDir.resolve("blob"), content);
+		document = new documents();
+		document.setFileName("report.pdf");
+		document.setBlobHash(HASH);
+		document.setUploadDate(new Date(1_700_000_000_000L));
+	}
+
+	@Test
+	void servesWholeFileWithValidators() throws Exception {
+		MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/"));
+
+		assertEquals(200, response.getStatus());
+		assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertArrayEquals(content, response.getContentAsByteArray());
+	}
+
+	@Test
+	void answersMatchingEtagWithNotModified() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("If-None-Match", "\"" + HASH + "\"");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void servesSingleRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=100-199");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 100-199/1000", response.getHeader("Content-Range"));
+		assertArrayEquals(Arrays.copyOfRange(content, 100, 200), response.getContentAsByteArray());
+	}
+
+	@Test
+	void servesMultipleRangesAsByteranges() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=0-9,-10");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+		String body = response.getContentAsString(StandardCharsets.ISO_8859_1);
+		assertTrue(body.contains("Content-Range: bytes 0-9/1000"));
+		assertTrue(body.contains("Content-Range: bytes 990-999/1000"));
+	}
+
+	@Test
+	void ignoresRangeWhenIfRangeIsStale() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=0-9");
+		request.addHeader("If-Range", "\"stale\"");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(content.length, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void rejectsUnsatisfiableRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=5000-6000");
+
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */1000", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	void decompressesColdBlobsWhileServingRanges() throws Exception {
+		file = tempDir.resolve("blob.gz");
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			out.write(content);
+		}
+		document.setFileSize((long) content.length);
+
+		assertArrayEquals(content, serve(new MockHttpServletRequest("GET", "/")).getContentAsByteArray());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=900-999,10-19");
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		String body = response.getContentAsString(StandardCharsets.ISO_8859_1);
+		assertTrue(body.contains("Content-Range: bytes 900-999/1000"));
+		assertTrue(body.contains(new String(Arrays.copyOfRange(content, 10, 20), StandardCharsets.ISO_8859_1)));
+	}
+
+	@Test
+	void servesRangesFromBlockCompressedBlobs() throws Exception {
+		file = tempDir.resolve("blob.gz");
+		try (OutputStream out = Files.newOutputStream(file)) {
+			SeekableGzip.compress(new ByteArrayInputStream(content), out, 128);
+		}
+		document.setFileSize((long) content.length);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=700-899");
+		MockHttpServletResponse response = serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertArrayEquals(Arrays.copyOfRange(content, 700, 900), response.getContentAsByteArray());
+	}
+
+	private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		downloader.serve(request, response, document, file);
+		return response;
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class PdfValidatorTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final PdfValidator validator = new PdfValidator();
+
+	@Test
+	void acceptsPdfWrittenByPdfBox() throws Exception {
+		Path file = Files.write(tempDir.resolve("ok.pdf"), pdf());
+
+		assertDoesNotThrow(() -> validator.checkStructure(file));
+	}
+
+	@Test
+	void findsHeaderAfterLeadingJunkAndAcrossBuffers() {
+		PdfValidator.HeaderScan scan = validator.newHeaderScan();
+
+		scan.update(ByteBuffer.wrap("junk\n%P".getBytes(StandardCharsets.US_ASCII)));
+		scan.update(ByteBuffer.wrap("DF-1.7\n".getBytes(StandardCharsets.US_ASCII)));
+
+		assertDoesNotThrow(scan::finish);
+	}
+
+	@Test
+	void rejectsMissingHeaderOnceWindowIsFull() {
+		PdfValidator.HeaderScan scan = validator.newHeaderScan();
+
+		assertThrows(IllegalArgumentException.class, () -> scan.update(ByteBuffer.allocate(2048)));
+	}
+
+	@Test
+	void abortsWriteAtFirstBufferAndLeavesNoFile() throws Exception {
+		StreamingFileWriter writer = new StreamingFileWriter(DataSize.ofKilobytes(4), 2, DataSize.ofMegabytes(10));
+		AtomicInteger bytesRead = new AtomicInteger();
+		InputStream junk = new InputStream() {
+			@Override
+			public int read() {
+				bytesRead.incrementAndGet();
+				return 'x';
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				bytesRead.addAndGet(len);
+				Arrays.fill(b, off, off + len, (byte) 'x');
+				return len;
+			}
+		};
+
+		assertThrows(IllegalArgumentException.class,
+				() -> writer.write(junk, tempDir.resolve("incoming"), validator.newHeaderScan()));
+
+		assertTrue(bytesRead.get() <= 4096, "read " + bytesRead.get() + " bytes");
+		try (Stream<Path> files = Files.list(tempDir.resolve("incoming"))) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	void rejectsTruncatedFile() throws Exception {
+		byte[] pdf = pdf();
+		Path file = Files.write(tempDir.resolve("cut.pdf"), Arrays.copyOf(pdf, pdf.length / 2));
+
+		assertThrows(IllegalArgumentException.class, () -> validator.checkStructure(file));
+	}
+
+	@Test
+	void rejectsStartxrefPointingNowhere() throws Exception {
+		String body = "%PDF-1.4\n1 0 obj << >> endobj\ntrailer << >>\nstartxref\n999999\n%%EOF\n";
+		Path file = Files.writeString(tempDir.resolve("bad.pdf"), body, StandardCharsets.US_ASCII);
+
+		assertThrows(IllegalArgumentException.class, () -> validator.checkStructure(file));
+	}
+
+	@Test
+	void headerScanDoesNotConsumeTheBuffer() throws Exception {
+		byte[] pdf = pdf();
+		StreamingFileWriter writer = new StreamingFileWriter(DataSize.ofKilobytes(1), 2, DataSize.ofMegabytes(1));
+
+		StoredFile stored = writer.write(new ByteArrayInputStream(pdf), tempDir, validator.newHeaderScan());
+
+		assertEquals(pdf.length, stored.getSize());
+		assertDoesNotThrow(() -> validator.checkStructure(stored.getPath()));
+	}
+
+	private byte[] pdf() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PDDocument document = new PDDocument()) {
+			document.addPage(new PDPage());
+			document.save(out);
+		}
+		return out.toByteArray();
+	}
+}
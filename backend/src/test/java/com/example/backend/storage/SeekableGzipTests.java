@@ -0,0 +1,81 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SeekableGzipTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final byte[] content = new byte[10_000];
+
+	@BeforeEach
+	void setUp() {
+		// Half random, half repetitive, so blocks compress to different lengths
+		new Random(42).nextBytes(content);
+		Arrays.fill(content, 5_000, content.length, (byte) 'x');
+	}
+
+	@Test
+	void isPlainGzipWhenReadFromTheStart() throws Exception {
+		Path file = compress(content, 1024);
+
+		try (InputStream in = BlobStore.openDecompressed(file)) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void opensAtAnyOffset() throws Exception {
+		Path file = compress(content, 1024);
+
+		for (int offset : new int[] { 0, 1, 1023, 1024, 1025, 4_999, 5_120, 9_999, 10_000 }) {
+			try (InputStream in = SeekableGzip.open(file, offset)) {
+				assertArrayEquals(Arrays.copyOfRange(content, offset, content.length), in.readAllBytes(),
+						"offset " + offset);
+			}
+		}
+	}
+
+	@Test
+	void opensSingleMemberGzipFromBeforeBlocks() throws Exception {
+		Path file = tempDir.resolve("legacy.gz");
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			out.write(content);
+		}
+
+		try (InputStream in = SeekableGzip.open(file, 7_000)) {
+			assertArrayEquals(Arrays.copyOfRange(content, 7_000, content.length), in.readAllBytes());
+		}
+	}
+
+	@Test
+	void rejectsOffsetPastTheEnd() throws Exception {
+		Path file = compress(content, 1024);
+
+		assertThrows(EOFException.class, () -> SeekableGzip.open(file, content.length + 1).close());
+	}
+
+	private Path compress(byte[] bytes, int blockSize) throws Exception {
+		Path file = tempDir.resolve("blob.gz");
+		try (OutputStream out = Files.newOutputStream(file)) {
+			SeekableGzip.compress(new ByteArrayInputStream(bytes), out, blockSize);
+		}
+		return file;
+	}
+}
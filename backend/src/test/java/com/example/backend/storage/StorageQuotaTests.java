@@ -0,0 +1,149 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.entities.StorageUsage;
+import com.example.backend.entities.User;
+import com.example.backend.entities.documents;
+import com.example.backend.errors.QuotaExceededException;
+import com.example.backend.repositories.fileRepository;
+import com.example.backend.repositories.storageUsageRepository;
+import com.example.backend.repositories.userRepository;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "app.storage.quota.default=1000B")
+@Import({ StorageQuota.class, StorageUsageReconciler.class })
+class StorageQuotaTests {
+
+	@Autowired
+	private StorageQuota storageQuota;
+
+	@Autowired
+	private StorageUsageReconciler storageUsageReconciler;
+
+	@Autowired
+	private storageUsageRepository storageUsageRepository;
+
+	@Autowired
+	private fileRepository fileRepository;
+
+	@Autowired
+	private userRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		storageUsageRepository.deleteAll();
+		fileRepository.deleteAll();
+		userRepository.deleteAll();
+
+		User newUser = new User();
+		newUser.setEmail("quota@example.com");
+		user = userRepository.save(newUser);
+	}
+
+	@Test
+	void firstReservationStartsFromExistingDocuments() {
+		saveDocument(300);
+
+		reserve(200, 1);
+
+		assertUsage(500, 2);
+	}
+
+	@Test
+	void reservationOverQuotaIsRejectedAndChangesNothing() {
+		reserve(900, 1);
+
+		QuotaExceededException e = assertThrows(QuotaExceededException.class, () -> reserve(200, 1));
+
+		assertTrue(e.getMessage().contains("900 of 1000"), e.getMessage());
+		assertUsage(900, 1);
+	}
+
+	@Test
+	void firstReservationOverQuotaIsRejected() {
+		saveDocument(950);
+
+		assertThrows(QuotaExceededException.class, () -> reserve(100, 1));
+
+		// The counter's first row goes with the rejected upload's transaction
+		assertFalse(storageUsageRepository.existsById(user.getId()));
+		assertEquals(950, storageQuota.usage(user.getId()).getUsedBytes());
+	}
+
+	@Test
+	void perUserQuotaOverridesTheDefault() {
+		storageUsageRepository.save(new StorageUsage(user.getId(), 0L, 0L, 5000L, new Date()));
+
+		reserve(4000, 1);
+
+		assertUsage(4000, 1);
+	}
+
+	@Test
+	void releaseNeverGoesBelowZero() {
+		reserve(100, 1);
+
+		transactionTemplate.executeWithoutResult(status -> storageQuota.release(user.getId(), 40, 1));
+		assertUsage(60, 0);
+
+		transactionTemplate.executeWithoutResult(status -> storageQuota.release(user.getId(), 500, 3));
+		assertUsage(0, 0);
+	}
+
+	@Test
+	void reconcilerCorrectsDrift() {
+		saveDocument(300);
+		saveDocument(200);
+		storageUsageRepository.save(new StorageUsage(user.getId(), 42L, 7L, null, new Date()));
+
+		storageUsageReconciler.reconcileAll();
+
+		assertUsage(500, 2);
+		assertFalse(storageUsageReconciler.reconcile(user.getId()));
+	}
+
+	private void reserve(long bytes, int files) {
+		transactionTemplate.executeWithoutResult(status -> storageQuota.reserve(user.getId(), bytes, files));
+	}
+
+	private void saveDocument(long size) {
+		documents document = new documents();
+		document.setFileName("file.pdf");
+		document.setUploadDate(new Date());
+		document.setFileSize(size);
+		document.setUser(user);
+		fileRepository.save(document);
+	}
+
+	private void assertUsage(long bytes, long files) {
+		StorageUsage usage = storageUsageRepository.findById(user.getId()).orElseThrow();
+		assertEquals(bytes, usage.getUsedBytes());
+		assertEquals(files, usage.getFileCount());
+	}
+}
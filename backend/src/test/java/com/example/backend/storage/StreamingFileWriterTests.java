@@ -0,0 +1,68 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class StreamingFileWriterTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void writesContentAndDigestInOnePass() throws Exception {
+		byte[] content = new byte[200_000];
+		new Random(42).nextBytes(content);
+
+		StreamingFileWriter writer = new StreamingFileWriter(DataSize.ofKilobytes(4), 2, DataSize.ofMegabytes(1));
+		StoredFile stored = writer.write(new ByteArrayInputStream(content), tempDir);
+
+		assertEquals(content.length, stored.getSize());
+		assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+				stored.getSha256());
+		assertEquals(content.length, Files.size(stored.getPath()));
+	}
+
+	@Test
+	void assemblesChunksWrittenOutOfOrder() throws Exception {
+		byte[] content = new byte[10_000];
+		new Random(7).nextBytes(content);
+		Path part = tempDir.resolve("session.upload");
+
+		StreamingFileWriter writer = new StreamingFileWriter(DataSize.ofKilobytes(1), 2, DataSize.ofMegabytes(1));
+		writer.preallocate(part, content.length);
+		for (int index : new int[] { 2, 0, 1 }) {
+			int offset = index * 4_000;
+			int length = Math.min(4_000, content.length - offset);
+			writer.writeAt(new ByteArrayInputStream(content, offset, length), part, offset, length);
+		}
+
+		assertArrayEquals(content, Files.readAllBytes(part));
+		assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+				writer.digest(part).getSha256());
+	}
+
+	@Test
+	void rejectsOversizedBodyAndRemovesPartialFile() throws Exception {
+		StreamingFileWriter writer = new StreamingFileWriter(DataSize.ofKilobytes(4), 2, DataSize.ofKilobytes(8));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> writer.write(new ByteArrayInputStream(new byte[20_000]), tempDir));
+		try (var files = Files.list(tempDir)) {
+			assertFalse(files.findAny().isPresent());
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.example.backend.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ThumbnailRendererTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final ThumbnailRenderer renderer = new ThumbnailRenderer(200, 280);
+
+	@Test
+	void rendersLetterPageToWidth() throws Exception {
+		BufferedImage image = render(pdf(PDRectangle.LETTER));
+
+		assertEquals(200, image.getWidth());
+		assertTrue(image.getHeight() <= 280, "height " + image.getHeight());
+	}
+
+	@Test
+	void tallPageIsBoundByHeight() throws Exception {
+		BufferedImage image = render(pdf(PDRectangle.A4));
+
+		assertEquals(280, image.getHeight());
+		assertTrue(image.getWidth() < 200, "width " + image.getWidth());
+	}
+
+	@Test
+	void fitsLandscapePageInsideTheBox() throws Exception {
+		BufferedImage image = render(pdf(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth())));
+
+		assertEquals(200, image.getWidth());
+		assertTrue(image.getHeight() < image.getWidth());
+	}
+
+	@Test
+	void rejectsFilesThatAreNotPdf() throws Exception {
+		Path file = Files.writeString(tempDir.resolve("notes.pdf"), "not a pdf");
+
+		assertThrows(IOException.class, () -> renderer.render(file));
+	}
+
+	private BufferedImage render(Path pdf) throws IOException {
+		return ImageIO.read(new ByteArrayInputStream(renderer.render(pdf)));
+	}
+
+	private Path pdf(PDRectangle size) throws IOException {
+		Path file = tempDir.resolve("page.pdf");
+		try (PDDocument document = new PDDocument()) {
+			document.addPage(new PDPage(size));
+			document.save(file.toFile());
+		}
+		return file;
+	}
+}
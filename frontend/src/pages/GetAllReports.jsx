@@ -4,10 +4,40 @@ import {
   getAllReports,
   deleteReport,
   downloadFileAndSave,
+  getThumbnailUrl,
   isAuthenticated,
   getUserDetails,
 } from "../utils/api";
 
+// Shows the first-page preview once it loads, the generic icon otherwise
+const ReportThumbnail = ({ id }) => {
+  const [url, setUrl] = useState(null);
+
+  useEffect(() => {
+    let objectUrl = null;
+    let cancelled = false;
+
+    getThumbnailUrl(id).then((result) => {
+      if (cancelled) {
+        if (result) window.URL.revokeObjectURL(result);
+        return;
+      }
+      objectUrl = result;
+      setUrl(result);
+    });
+
+    return () => {
+      cancelled = true;
+      if (objectUrl) window.URL.revokeObjectURL(objectUrl);
+    };
+  }, [id]);
+
+  if (!url) {
+    return <span className="file-icon">📄</span>;
+  }
+  return <img className="file-thumbnail" src={url} alt="" loading="lazy" />;
+};
+
 const GetAllReports = () => {
   const navigate = useNavigate();
   const [reports, setReports] = useState([]);
@@ -16,6 +46,8 @@ const GetAllReports = () => {
   const [userLoading, setUserLoading] = useState(true);
   const [error, setError] = useState(null);
   const [deleteLoading, setDeleteLoading] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   // Check authentication on component mount
   useEffect(() => {
@@ -67,7 +99,8 @@ const GetAllReports = () => {
         const data = await response.json();
         console.log("Reports data received:", data);
         // Ensure data is always an array, even if empty
-        setReports(Array.isArray(data) ? data : []);
+        setReports(Array.isArray(data.items) ? data.items : []);
+        setNextCursor(data.nextCursor || null);
       } catch (err) {
         console.error("Error fetching reports:", err.message);
 
@@ -168,7 +201,8 @@ const GetAllReports = () => {
       const data = await response.json();
       console.log("Reports data received:", data);
       // Ensure data is always an array, even if empty
-      setReports(Array.isArray(data) ? data : []);
+      setReports(Array.isArray(data.items) ? data.items : []);
+      setNextCursor(data.nextCursor || null);
     } catch (err) {
       console.error("Error fetching reports:", err.message);
 
@@ -200,6 +234,28 @@ const GetAllReports = () => {
     }
   };
 
+  const loadMoreReports = async () => {
+    if (!nextCursor) return;
+
+    try {
+      setLoadingMore(true);
+      const response = await getAllReports(nextCursor);
+
+      if (!response.ok) {
+        throw new Error(`HTTP error: ${response.status}`);
+      }
+
+      const data = await response.json();
+      setReports((current) => [...current, ...(data.items || [])]);
+      setNextCursor(data.nextCursor || null);
+    } catch (err) {
+      console.error("Error loading more reports:", err.message);
+      setError(err.message || "Failed to load more reports.");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDownload = async (id, fileName) => {
     try {
       console.log("Downloading file:", fileName);
@@ -381,7 +437,7 @@ const GetAllReports = () => {
                     <tr key={report.id}>
                       <td className="file-name-cell">
                         <div className="file-info">
-                          <span className="file-icon">📄</span>
+                          <ReportThumbnail id={report.id} />
                           <span className="file-name" title={report.fileName}>
                             {truncateFileName(report.fileName)}
                           </span>
@@ -421,6 +477,18 @@ const GetAllReports = () => {
                 </tbody>
               </table>
             </div>
+
+            {nextCursor && (
+              <div className="load-more">
+                <button
+                  className="btn btn-secondary"
+                  onClick={loadMoreReports}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? "⏳ Loading..." : "⬇️ Load More"}
+                </button>
+              </div>
+            )}
           </div>
         )}
       </div>
@@ -10,17 +10,91 @@ export const getAuthToken = () => {
 // Remove token from localStorage (for logout)
 export const removeAuthToken = () => {
   localStorage.removeItem("authToken");
+  localStorage.removeItem("refreshToken");
   // Dispatch custom event to notify App component
   window.dispatchEvent(new Event("tokenChanged"));
 };
 
-// Logout function
-export const logout = () => {
+// Access tokens are short-lived; the refresh token gets a new pair when one expires
+const storeTokens = (data) => {
+  localStorage.setItem("authToken", data.token);
+  localStorage.setItem("refreshToken", data.refreshToken);
+  // Dispatch custom event to notify App component
+  window.dispatchEvent(new Event("tokenChanged"));
+};
+
+// Logout function: revokes the access token and this login's refresh tokens on the server
+export const logout = async () => {
+  try {
+    await fetch(`${API_BASE_URL}/auth/logout`, {
+      method: "POST",
+      headers: {
+        "Content-Type": "application/json",
+        Authorization: `Bearer ${getAuthToken()}`,
+      },
+      body: JSON.stringify({ refreshToken: localStorage.getItem("refreshToken") }),
+    });
+  } catch (error) {
+    console.error("Logout request failed:", error);
+  }
   removeAuthToken();
   // Redirect to login page
   window.location.href = "/login";
 };
 
+// One refresh at a time; concurrent 401s wait for the same new token
+let refreshing = null;
+
+const refreshAuthToken = () => {
+  if (!refreshing) {
+    refreshing = (async () => {
+      const refreshToken = localStorage.getItem("refreshToken");
+      if (!refreshToken) {
+        return false;
+      }
+
+      const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+        method: "POST",
+        headers: {
+          "Content-Type": "application/json",
+        },
+        body: JSON.stringify({ refreshToken }),
+      });
+
+      if (!response.ok) {
+        // Another tab may have rotated it first and stored the new pair
+        return localStorage.getItem("refreshToken") !== refreshToken;
+      }
+
+      storeTokens(await response.json());
+      return true;
+    })()
+      .catch(() => false)
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
+// fetch with the current access token, refreshing it once on 401
+const authorizedFetch = async (url, options = {}) => {
+  const send = () =>
+    fetch(url, {
+      ...options,
+      headers: {
+        ...options.headers,
+        Authorization: `Bearer ${getAuthToken()}`,
+      },
+    });
+
+  const response = await send();
+  if (response.status === 401 && (await refreshAuthToken())) {
+    return send();
+  }
+  return response;
+};
+
 // Check if user is authenticated
 export const isAuthenticated = () => {
   const token = getAuthToken();
@@ -40,10 +114,8 @@ export const loginUser = async (email, password) => {
   const data = await response.json();
 
   if (response.ok) {
-    // Store token in localStorage
-    localStorage.setItem("authToken", data.token);
-    // Dispatch custom event to notify App component
-    window.dispatchEvent(new Event("tokenChanged"));
+    // Store tokens in localStorage
+    storeTokens(data);
   }
 
   return { response, data };
@@ -61,10 +133,8 @@ export const registerUser = async (userData) => {
   const data = await response.json();
 
   if (response.ok) {
-    // Store token in localStorage after successful signup
-    localStorage.setItem("authToken", data.token);
-    // Dispatch custom event to notify App component
-    window.dispatchEvent(new Event("tokenChanged"));
+    // Store tokens in localStorage after successful signup
+    storeTokens(data);
   }
 
   return { response, data };
@@ -72,14 +142,9 @@ export const registerUser = async (userData) => {
 
 // Get current user details
 export const getUserDetails = async () => {
-  const token = getAuthToken();
-
   try {
-    const response = await fetch(`${API_BASE_URL}/api/me`, {
+    const response = await authorizedFetch(`${API_BASE_URL}/api/me`, {
       method: "GET",
-      headers: {
-        Authorization: `Bearer ${token}`,
-      },
     });
 
     // Handle unauthorized responses (token expired/invalid)
@@ -98,15 +163,10 @@ export const getUserDetails = async () => {
 
 // File upload function for FormData
 export const uploadFile = async (formData) => {
-  const token = getAuthToken();
-
   try {
-    const response = await fetch(`${API_BASE_URL}/api/documents/upload?file`, {
+    const response = await authorizedFetch(`${API_BASE_URL}/api/documents/upload?file`, {
       method: "POST",
-      headers: {
-        Authorization: `Bearer ${token}`,
-        // Don't set Content-Type for FormData, let browser set it with boundary
-      },
+      // Don't set Content-Type for FormData, let browser set it with boundary
       body: formData,
     });
 
@@ -124,15 +184,13 @@ export const uploadFile = async (formData) => {
   }
 };
 
-export const getAllReports = async () => {
-  const token = getAuthToken();
+// Reports are paged newest first; pass the previous page's nextCursor to continue
+export const getAllReports = async (cursor) => {
+  const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
 
   try {
-    const response = await fetch(`${API_BASE_URL}/api/documents`, {
+    const response = await authorizedFetch(`${API_BASE_URL}/api/documents${query}`, {
       method: "GET",
-      headers: {
-        Authorization: `Bearer ${token}`,
-      },
     });
 
     // Handle unauthorized responses (token expired/invalid)
@@ -150,14 +208,9 @@ export const getAllReports = async () => {
 };
 
 export const deleteReport = async (id) => {
-  const token = getAuthToken();
-
   try {
-    const response = await fetch(`${API_BASE_URL}/api/documents/${id}`, {
+    const response = await authorizedFetch(`${API_BASE_URL}/api/documents/${id}`, {
       method: "DELETE",
-      headers: {
-        Authorization: `Bearer ${token}`,
-      },
     });
 
     // Handle unauthorized responses (token expired/invalid)
@@ -175,14 +228,9 @@ export const deleteReport = async (id) => {
 };
 
 export const downloadFile = async (id) => {
-  const token = getAuthToken();
-
   try {
-    const response = await fetch(`${API_BASE_URL}/api/documents/${id}`, {
+    const response = await authorizedFetch(`${API_BASE_URL}/api/documents/${id}`, {
       method: "GET",
-      headers: {
-        Authorization: `Bearer ${token}`,
-      },
     });
 
     // Handle unauthorized responses (token expired/invalid)
@@ -203,6 +251,34 @@ export const downloadFile = async (id) => {
   }
 };
 
+// First-page preview as an object URL, or null when the file has none.
+// The server marks thumbnails immutable, so repeat visits come from the browser cache.
+// A 202 means the preview is still being rendered; ask again after Retry-After.
+export const getThumbnailUrl = async (id, attempts = 5) => {
+  try {
+    let response = await authorizedFetch(`${API_BASE_URL}/api/documents/${id}/thumbnail`, {
+      method: "GET",
+    });
+    while (response.status === 202 && --attempts > 0) {
+      const seconds = Number(response.headers.get("Retry-After")) || 2;
+      await new Promise((resolve) => setTimeout(resolve, seconds * 1000));
+      response = await authorizedFetch(`${API_BASE_URL}/api/documents/${id}/thumbnail`, {
+        method: "GET",
+      });
+    }
+
+    if (response.status !== 200) {
+      return null;
+    }
+
+    const blob = await response.blob();
+    return window.URL.createObjectURL(blob);
+  } catch (error) {
+    console.error("Thumbnail fetch failed:", error);
+    return null;
+  }
+};
+
 // Helper function to trigger file download in browser
 export const downloadFileAndSave = async (id, fileName) => {
   try {